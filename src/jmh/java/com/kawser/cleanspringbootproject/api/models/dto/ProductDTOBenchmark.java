@@ -0,0 +1,49 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import com.kawser.cleanspringbootproject.api.models.Product;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark of the mapping of the products to ProductDTO, as done for every page of products.
+ * It maps a set with ProductDTO.from(Set), which hashes every DTO, and a list one by one with ProductDTO.from.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ProductDTOBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductDTOBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<Product> productList;
+
+    private Set<Product> productSet;
+
+    @Setup
+    public void setUp() {
+        productList = IntStream.range(0, size)
+                .mapToObj(i -> new Product("P" + (1000 + i), "Product " + i, 10.0 + i, "Description of the product " + i))
+                .toList();
+        productSet = new HashSet<>(productList);
+    }
+
+    @Benchmark
+    public Set<ProductDTO> fromSet() {
+        return ProductDTO.from(productSet);
+    }
+
+    @Benchmark
+    public List<ProductDTO> fromList() {
+        return productList.stream().map(ProductDTO::from).toList();
+    }
+}
@@ -0,0 +1,56 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark of the JSON serialization of a page of products, as written by GET /products/paginated.
+ * The ObjectMapper is built as Spring Boot builds it, and the page is written to a stream as the controller does.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ProductPageSerializationBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductPageSerializationBenchmark {
+
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+
+    private Page<ProductDTO> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        page = new PageImpl<>(
+                IntStream.range(0, size)
+                        .mapToObj(i -> new ProductDTO("P" + (1000 + i), "Product " + i, 10.0 + i, "Description of the product " + i))
+                        .toList(),
+                PageRequest.of(3, size, Sort.by("name")), 10_000);
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), page);
+    }
+
+    @Benchmark
+    public String writeAsString() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(page);
+    }
+}
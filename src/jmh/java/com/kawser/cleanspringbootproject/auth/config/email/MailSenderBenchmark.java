@@ -0,0 +1,102 @@
+package com.kawser.cleanspringbootproject.auth.config.email;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput benchmark of the email delivery against an embedded SMTP server (GreenMail) requiring authentication.
+ * It compares the JavaMailSenderImpl, which opens and authenticates a connection for every send, with the
+ * PooledJavaMailSender sending the same emails one by one and in a single batch.
+ * The server runs on the loopback without TLS, so the real gain against a remote server with STARTTLS is larger.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="MailSenderBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MailSenderBenchmark {
+
+    private static final int BATCH_SIZE = 10;
+
+    private GreenMail greenMail;
+
+    private JavaMailSenderImpl connectionPerSend;
+
+    private PooledJavaMailSender pooled;
+
+    private MimeMessage[] messages;
+
+    @Setup
+    public void setUp() throws MessagingException {
+        ServerSetup smtp = new ServerSetup(3925, "127.0.0.1", ServerSetup.PROTOCOL_SMTP);
+        greenMail = new GreenMail(smtp).withConfiguration(GreenMailConfiguration.aConfig().withUser("sender", "password"));
+        greenMail.start();
+
+        connectionPerSend = configure(new JavaMailSenderImpl(), smtp);
+        pooled = configure(new PooledJavaMailSender(1, Duration.ofMinutes(1)), smtp);
+
+        messages = new MimeMessage[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            MimeMessage message = pooled.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message);
+            helper.setFrom("sender@test.com");
+            helper.setTo("user" + i + "@test.com");
+            helper.setSubject("Verify your account");
+            helper.setText("<div><a href=\"https://localhost:8080/auth/verify-account\">Verify</a></div>", true);
+            messages[i] = message;
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void purge() throws Exception {
+        greenMail.purgeEmailFromAllMailboxes();
+    }
+
+    @TearDown
+    public void tearDown() {
+        pooled.destroy();
+        greenMail.stop();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void connectionPerSend() {
+        for (MimeMessage message : messages) {
+            connectionPerSend.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void pooledConnection() {
+        for (MimeMessage message : messages) {
+            pooled.send(message);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void pooledConnectionBatch() {
+        pooled.send(messages);
+    }
+
+    private <T extends JavaMailSenderImpl> T configure(T sender, ServerSetup smtp) {
+        sender.setHost(smtp.getBindAddress());
+        sender.setPort(smtp.getPort());
+        sender.setUsername("sender");
+        sender.setPassword("password");
+        sender.getJavaMailProperties().put("mail.smtp.auth", "true");
+        return sender;
+    }
+}
@@ -0,0 +1,58 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.models.UserRole;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the token verification done by the SecurityFilter on every authenticated request.
+ * It compares the TokenService, which reuses the Algorithm and the JWTVerifier built at startup,
+ * with the previous behavior of rebuilding both for every call.
+ * Run it with the allocation profiler to see the bytes allocated per request:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="TokenServiceBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenServiceBenchmark {
+
+    private static final String SECRET = "benchmark-secret";
+
+    private TokenService tokenService;
+
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "EXPIRATION_TIME", 7200L);
+        tokenService.init();
+
+        User user = new User("benchmark", "password", "benchmark@test.com", UserRole.USER, "01912990007");
+        user.setId(1L);
+        token = tokenService.generateToken(user);
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return tokenService.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateTokenRebuildingVerifier() {
+        Algorithm algorithm = Algorithm.HMAC256(SECRET);
+        var verifier = JWT.require(algorithm)
+                .withIssuer("auth-service")
+                .build();
+        return verifier.verify(token).getSubject();
+    }
+}
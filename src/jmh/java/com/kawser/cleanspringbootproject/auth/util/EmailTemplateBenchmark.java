@@ -0,0 +1,76 @@
+package com.kawser.cleanspringbootproject.auth.util;
+
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the creation of an email, up to its encoding as it is written to the SMTP connection.
+ * It compares the EmailUtil, rendering a template parsed at startup into a single-part message, with the previous
+ * behavior of formatting the HTML body and building a multipart message for every email.
+ * Run it with the allocation profiler to see the bytes allocated per email:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="EmailTemplateBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private JavaMailSenderImpl mailSender;
+
+    private EmailUtil emailUtil;
+
+    @Setup
+    public void setUp() throws IOException {
+        mailSender = new JavaMailSenderImpl();
+
+        EmailTemplateUtil emailTemplateUtil = new EmailTemplateUtil();
+        emailTemplateUtil.init();
+
+        emailUtil = new EmailUtil();
+        ReflectionTestUtils.setField(emailUtil, "mailSender", mailSender);
+        ReflectionTestUtils.setField(emailUtil, "emailTemplateUtil", emailTemplateUtil);
+    }
+
+    @Benchmark
+    public MimeMessage template() throws MessagingException, IOException {
+        MimeMessage message = emailUtil.createEmail(EmailType.VERIFY_ACCOUNT, null, "benchmark@test.com", "123456");
+        return encode(message);
+    }
+
+    @Benchmark
+    public MimeMessage formattedMultipart() throws MessagingException, IOException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true);
+        helper.setTo("benchmark@test.com");
+        helper.setSubject("Verify your account");
+        helper.setText(
+                """
+                <div>
+                <a href="https://localhost:8080/auth/verify-account?email=%s&token=%s">
+                Click here to verify your account
+                </a>
+                </div>
+                """
+                .formatted("benchmark@test.com", "123456"),
+                true);
+        return encode(message);
+    }
+
+    private MimeMessage encode(MimeMessage message) throws MessagingException, IOException {
+        message.saveChanges();
+        message.writeTo(OutputStream.nullOutputStream());
+        return message;
+    }
+}
@@ -0,0 +1,33 @@
+package com.kawser.cleanspringbootproject.auth.util;
+
+import com.kawser.cleanspringbootproject.auth.models.OneTimePassword;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the generation of a one-time password, done on the signup and on each request of a new OTP.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="OtpUtilBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OtpUtilBenchmark {
+
+    private final OtpUtil otpUtil = new OtpUtil();
+
+    private final OneTimePassword otp = otpUtil.generateOtp();
+
+    @Benchmark
+    public OneTimePassword generateOtp() {
+        return otpUtil.generateOtp();
+    }
+
+    @Benchmark
+    public boolean isValidOtp() {
+        return otpUtil.isValidOtp(otp);
+    }
+}
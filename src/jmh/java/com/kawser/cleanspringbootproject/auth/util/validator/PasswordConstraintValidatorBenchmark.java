@@ -0,0 +1,29 @@
+package com.kawser.cleanspringbootproject.auth.util.validator;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the validation of a password, done on the signup and on the password reset.
+ * A valid password runs every rule, an invalid one stops at the first failing rule.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PasswordConstraintValidatorBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordConstraintValidatorBenchmark {
+
+    private final PasswordConstraintValidator validator = new PasswordConstraintValidator();
+
+    @Param({"PasswordA12@", "passwordwithoutuppercase"})
+    private String password;
+
+    @Benchmark
+    public boolean isValid() {
+        return validator.isValid(password, null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.kawser.cleanspringbootproject.config.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.rolling.RollingFileAppender;
+import ch.qos.logback.core.rolling.TimeBasedRollingPolicy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the time a request thread spends in a log.info call, such as the ones of ProductService and
+ * AuthenticationService. It compares the rolling file appender written from the calling thread (the sync-logging
+ * profile) with the async appender of logback-spring.xml, which only adds the event to a bounded queue.
+ * The appenders are built with the same settings as logback-spring.xml, writing to a temporary directory.
+ * The time of each call is sampled, so the percentiles show the calls that waited for the disk:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="LoggingBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    private LoggerContext context;
+
+    private Logger logger;
+
+    private Path directory;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("logging-benchmark");
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} %-5level %logger{36} - %msg%n");
+        encoder.start();
+
+        RollingFileAppender<ILoggingEvent> rolling = new RollingFileAppender<>();
+        rolling.setContext(context);
+        rolling.setName("ROLLING");
+        rolling.setFile(directory.resolve("application.log").toString());
+        rolling.setEncoder(encoder);
+        TimeBasedRollingPolicy<ILoggingEvent> rollingPolicy = new TimeBasedRollingPolicy<>();
+        rollingPolicy.setContext(context);
+        rollingPolicy.setParent(rolling);
+        rollingPolicy.setFileNamePattern(directory.resolve("application.%d{yyyy-MM-dd}.log").toString());
+        rollingPolicy.setMaxHistory(10);
+        rollingPolicy.start();
+        rolling.setRollingPolicy(rollingPolicy);
+        rolling.start();
+
+        Appender<ILoggingEvent> root = rolling;
+        if (appender.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(rolling);
+            async.start();
+            root = async;
+        }
+
+        logger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(root);
+        logger = context.getLogger("com.kawser.cleanspringbootproject.api.services.impl.ProductService");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.stop();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void logInfo() {
+        logger.info("Received request to get products with pagination: page={}, size={}, sort={}", 3, 10, "name,asc");
+    }
+}
@@ -0,0 +1,61 @@
+package com.kawser.cleanspringbootproject.exception.global.handler;
+
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.exception.message.RestErrorMessage;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the building of the error message of an invalid request body, e.g. a product with invalid fields.
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="GlobalExceptionsHandlerBenchmark -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionsHandlerBenchmark {
+
+    @Param({"1", "4"})
+    private int invalidFields;
+
+    private final GlobalExceptionsHandler handler = new GlobalExceptionsHandler();
+
+    private MethodArgumentNotValidException exception;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        BeanPropertyBindingResult bindingResult = new BeanPropertyBindingResult(
+                new ProductDTO("P1", "", -1.0, "Description"), "productDTO");
+        String[][] errors = {
+                {"code", "Code must be between 4 and 8 characters long"},
+                {"name", "Product name cannot be blank"},
+                {"price", "Price cannot be less than zero"},
+                {"description", "Description must be 500 characters or less"}};
+        for (int i = 0; i < invalidFields; i++) {
+            bindingResult.addError(new FieldError("productDTO", errors[i][0], errors[i][1]));
+        }
+        MethodParameter parameter = new MethodParameter(
+                GlobalExceptionsHandlerBenchmark.class.getDeclaredMethod("create", ProductDTO.class), 0);
+        exception = new MethodArgumentNotValidException(parameter, bindingResult);
+    }
+
+    @Benchmark
+    public ResponseEntity<RestErrorMessage> handleMethodArgumentNotValidException() {
+        return handler.handleMethodArgumentNotValidException(exception, null);
+    }
+
+    /**
+     * Controller method whose argument is invalid.
+     */
+    @SuppressWarnings("unused")
+    private void create(ProductDTO product) {
+    }
+}
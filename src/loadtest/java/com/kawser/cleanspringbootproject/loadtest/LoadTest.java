@@ -0,0 +1,118 @@
+package com.kawser.cleanspringbootproject.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.kawser.cleanspringbootproject.CleanSpringBootProjectApplication;
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.models.UserRole;
+import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Load test of the application, measuring the throughput, the latency percentiles and the allocation rate of a
+ * configurable mix of /products/paginated, /products/find, /auth/login and /auth/signup requests.
+ * The application is started with the H2 configuration of the tests and the loadtest profile, and sends its emails to
+ * a local SMTP server, so no PostgreSQL or Gmail is needed. The products and the users are seeded through the
+ * repositories before the run.
+ * Run it with the loadtest Maven profile, every loadtest.* property can be changed on the command line:
+ * mvn -Ploadtest test-compile exec:exec -Dloadtest.args="--loadtest.concurrency=64 --loadtest.duration=60s"
+ *
+ * @see LoadTestProperties
+ */
+@Slf4j
+public class LoadTest {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    public static void main(String[] args) throws Exception {
+        // The restart of devtools would run this method a second time in a new class loader
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        GreenMail smtpServer = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        smtpServer.start();
+
+        String[] applicationArgs = Stream.concat(Arrays.stream(args),
+                Stream.of("--spring.mail.port=" + smtpServer.getSmtp().getPort())).toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CleanSpringBootProjectApplication.class)
+                .profiles("loadtest")
+                .run(applicationArgs)) {
+            LoadTestProperties properties = Binder.get(context.getEnvironment())
+                    .bindOrCreate("loadtest", LoadTestProperties.class);
+
+            long[] productIds = seedProducts(context.getBean(ProductRepository.class), properties.products());
+            seedUsers(context.getBean(UserRepository.class), context.getBean(PasswordEncoder.class), properties);
+            log.info("Seeded {} products and {} users", properties.products(), properties.users());
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+            LoadTestReport report = new Workload(port, properties, productIds, objectMapper).run();
+
+            report.print(System.out);
+            report.write(properties.report(), objectMapper);
+            System.out.printf("Results written to %s, %d emails received by the SMTP server%n",
+                    properties.report().toAbsolutePath(), smtpServer.getReceivedMessages().length);
+        } finally {
+            smtpServer.stop();
+        }
+    }
+
+    /**
+     * This method will return the username of the seeded user with the given number.
+     */
+    static String seededUsername(int number) {
+        return "loaduser" + number;
+    }
+
+    private static long[] seedProducts(ProductRepository productRepository, int count) {
+        long[] ids = new long[count];
+        List<Product> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Product("P%07d".formatted(i), "Product " + i, 1 + (i % 10000) / 100.0,
+                    "Description of the product " + i));
+            if (batch.size() == SEED_BATCH_SIZE || i == count - 1) {
+                List<Product> saved = productRepository.saveAll(batch);
+                for (int j = 0; j < saved.size(); j++) {
+                    ids[i - saved.size() + 1 + j] = saved.get(j).getId();
+                }
+                batch.clear();
+            }
+        }
+        return ids;
+    }
+
+    private static void seedUsers(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                                  LoadTestProperties properties) {
+        // Every user has the same password, so it is hashed only once
+        String encodedPassword = passwordEncoder.encode(properties.password());
+        List<User> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < properties.users(); i++) {
+            batch.add(User.builder()
+                    .username(seededUsername(i))
+                    .password(encodedPassword)
+                    .email(seededUsername(i) + "@loadtest.com")
+                    .mobilePhone("%011d".formatted(i))
+                    .role(UserRole.USER)
+                    .enabled(true)
+                    .build());
+            if (batch.size() == SEED_BATCH_SIZE || i == properties.users() - 1) {
+                userRepository.saveAll(batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.kawser.cleanspringbootproject.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Settings of a load test run, bound from the loadtest.* properties of application-loadtest.properties and the
+ * command line.
+ *
+ * @param products Number of products seeded before the run
+ * @param users Number of enabled users seeded before the run
+ * @param password Password of every seeded user, sent by the login requests
+ * @param concurrency Number of clients sending requests one after the other
+ * @param warmup Time spent sending requests before measuring
+ * @param duration Time measured
+ * @param mix Weight of each operation in the workload
+ * @param pageSize Page size of the /products/paginated requests
+ * @param requestTimeout Time after which a request is counted as failed
+ * @param report JSON file the results are written to
+ */
+public record LoadTestProperties(
+        int products,
+        int users,
+        String password,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        int pageSize,
+        Duration requestTimeout,
+        Path report
+) {}
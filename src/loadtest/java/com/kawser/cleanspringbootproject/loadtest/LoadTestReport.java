@@ -0,0 +1,123 @@
+package com.kawser.cleanspringbootproject.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of a load test run: the throughput and latency percentiles of each operation and of the whole workload,
+ * and the memory allocated while measuring.
+ *
+ * @param durationSeconds Time measured
+ * @param concurrency Number of clients
+ * @param operations Results of each operation, followed by the results of the whole workload
+ * @param allocation Memory allocated while measuring
+ */
+public record LoadTestReport(
+        double durationSeconds,
+        int concurrency,
+        List<OperationResult> operations,
+        Allocation allocation
+) {
+
+    /**
+     * Throughput and latencies of an operation, latencies in milliseconds.
+     *
+     * @param name Name of the operation, or "all" for the whole workload
+     * @param requests Number of requests completed
+     * @param errors Number of requests answered with a status other than 2xx, or not answered
+     * @param errorsByStatus Number of errors by status, 0 for the requests not answered
+     * @param throughput Requests completed per second
+     */
+    public record OperationResult(
+            String name,
+            long requests,
+            long errors,
+            Map<Integer, Long> errorsByStatus,
+            double throughput,
+            double mean,
+            double p50,
+            double p90,
+            double p99,
+            double p999,
+            double max
+    ) {
+
+        static OperationResult of(String name, Histogram histogram, Map<Integer, Long> errorsByStatus,
+                                  double durationSeconds) {
+            long errors = errorsByStatus.values().stream().mapToLong(Long::longValue).sum();
+            return new OperationResult(name, histogram.getTotalCount(), errors, errorsByStatus,
+                    histogram.getTotalCount() / durationSeconds,
+                    millis(histogram.getMean()),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(double nanos) {
+            return nanos / 1_000_000;
+        }
+    }
+
+    /**
+     * Memory allocated while measuring.
+     * The load generator runs in the same JVM as the application, so the JVM allocation rate includes the clients,
+     * while the server figures only count the request threads of Tomcat and the password hashing threads. These are
+     * -1 when the requests run on virtual threads, which are not listed by the JVM.
+     *
+     * @param jvmBytesPerSecond Bytes allocated per second by every thread of the JVM
+     * @param serverBytesPerSecond Bytes allocated per second by the server threads
+     * @param serverBytesPerRequest Bytes allocated per request by the server threads
+     * @param gcCount Number of garbage collections
+     * @param gcMillis Time spent in the garbage collections
+     */
+    public record Allocation(
+            double jvmBytesPerSecond,
+            double serverBytesPerSecond,
+            double serverBytesPerRequest,
+            long gcCount,
+            long gcMillis
+    ) {}
+
+    /**
+     * This method will print the results as a table.
+     */
+    public void print(PrintStream out) {
+        out.printf("%nLoad test: %d clients for %.1f s%n%n", concurrency, durationSeconds);
+        out.printf("%-10s %10s %8s %10s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "mean ms", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (OperationResult operation : operations) {
+            out.printf("%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.name(), operation.requests(), operation.errors(), operation.throughput(),
+                    operation.mean(), operation.p50(), operation.p90(), operation.p99(), operation.p999(),
+                    operation.max());
+            if (!operation.errorsByStatus().isEmpty()) {
+                out.printf("%-10s errors by status %s%n", "", operation.errorsByStatus());
+            }
+        }
+        out.printf("%nAllocation: JVM %.1f MB/s", allocation.jvmBytesPerSecond() / 1_000_000);
+        if (allocation.serverBytesPerSecond() >= 0) {
+            out.printf(", server threads %.1f MB/s, %.1f KB/request",
+                    allocation.serverBytesPerSecond() / 1_000_000, allocation.serverBytesPerRequest() / 1_000);
+        }
+        out.printf("%nGC: %d collections, %d ms%n%n", allocation.gcCount(), allocation.gcMillis());
+    }
+
+    /**
+     * This method will write the results as JSON.
+     */
+    public void write(Path file, ObjectMapper objectMapper) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), this);
+    }
+}
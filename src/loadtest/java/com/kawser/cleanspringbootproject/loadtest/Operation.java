@@ -0,0 +1,77 @@
+package com.kawser.cleanspringbootproject.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.kawser.cleanspringbootproject.auth.models.dto.authentication.LoginDTO;
+import com.kawser.cleanspringbootproject.auth.models.dto.authentication.SignupDTO;
+
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The requests of the mixed workload.
+ */
+public enum Operation {
+
+    /**
+     * A random page of the products.
+     */
+    PAGINATED {
+        @Override
+        HttpRequest.Builder request(Workload workload, ThreadLocalRandom random) {
+            int pages = Math.max(1, workload.getProductCount() / workload.getPageSize());
+            return HttpRequest.newBuilder(workload.uri("/products/paginated?page=" + random.nextInt(pages)
+                    + "&size=" + workload.getPageSize()))
+                    .GET();
+        }
+    },
+
+    /**
+     * A random product by its id.
+     */
+    FIND {
+        @Override
+        HttpRequest.Builder request(Workload workload, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(workload.uri("/products/find?product=" + workload.randomProductId(random)))
+                    .GET();
+        }
+    },
+
+    /**
+     * The login of a random seeded user.
+     */
+    LOGIN {
+        @Override
+        HttpRequest.Builder request(Workload workload, ThreadLocalRandom random) throws JsonProcessingException {
+            LoginDTO login = new LoginDTO(LoadTest.seededUsername(random.nextInt(workload.getUserCount())),
+                    workload.getPassword());
+            return json("/auth/login", login, workload);
+        }
+    },
+
+    /**
+     * The signup of a new user, which also sends its verification email.
+     */
+    SIGNUP {
+        @Override
+        HttpRequest.Builder request(Workload workload, ThreadLocalRandom random) throws JsonProcessingException {
+            long number = workload.nextSignup();
+            SignupDTO signup = new SignupDTO("signup" + number, workload.getPassword(),
+                    "signup" + number + "@loadtest.com", "%011d".formatted(number));
+            return json("/auth/signup", signup, workload);
+        }
+    };
+
+    /**
+     * This method will build the next request of this operation.
+     * @param workload Workload sending the request, with the seeded data
+     * @param random Random of the client thread
+     * @return The request, without its timeout
+     */
+    abstract HttpRequest.Builder request(Workload workload, ThreadLocalRandom random) throws JsonProcessingException;
+
+    private static HttpRequest.Builder json(String path, Object body, Workload workload) throws JsonProcessingException {
+        return HttpRequest.newBuilder(workload.uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(workload.getObjectMapper().writeValueAsString(body)));
+    }
+}
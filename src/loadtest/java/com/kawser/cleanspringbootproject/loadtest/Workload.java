@@ -0,0 +1,257 @@
+package com.kawser.cleanspringbootproject.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class sends the mixed workload to the application and measures it.
+ * Each client is a virtual thread sending a request, chosen at random by the weights of the mix, as soon as the
+ * previous one is answered (a closed workload: when the application slows down, the clients send fewer requests,
+ * so the latencies are those of the requests sent, not of the requests a fixed rate of users would have sent).
+ * The latency of each request is recorded in a histogram of its operation.
+ */
+public class Workload {
+
+    private static final String[] SERVER_THREADS = {"http-nio-", "password-hashing-"};
+
+    private final String baseUri;
+
+    private final LoadTestProperties properties;
+
+    private final long[] productIds;
+
+    @Getter
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient client;
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Map<Integer, LongAdder>> errors = new EnumMap<>(Operation.class);
+
+    private final AtomicLong signups = new AtomicLong();
+
+    private volatile boolean stopped;
+
+    /**
+     * @param port Port of the application
+     * @param properties Settings of the run
+     * @param productIds Ids of the seeded products
+     * @param objectMapper Mapper of the request bodies and of the report
+     */
+    public Workload(int port, LoadTestProperties properties, long[] productIds, ObjectMapper objectMapper) {
+        this.baseUri = "http://127.0.0.1:" + port;
+        this.properties = properties;
+        this.productIds = productIds;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        List<Operation> weighted = new ArrayList<>();
+        List<Integer> cumulative = new ArrayList<>();
+        int total = 0;
+        for (Operation operation : Operation.values()) {
+            int weight = properties.mix().getOrDefault(operation, 0);
+            if (weight > 0) {
+                total += weight;
+                weighted.add(operation);
+                cumulative.add(total);
+            }
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new ConcurrentHashMap<>());
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("The mix of the workload has no operation with a positive weight");
+        }
+        this.operations = weighted.toArray(Operation[]::new);
+        this.cumulativeWeights = cumulative.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * This method will send the workload during the warmup and the duration of the run and measure the duration.
+     * @return The results of the measured duration
+     */
+    public LoadTestReport run() throws InterruptedException {
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < properties.concurrency(); i++) {
+            clients.submit(this::sendRequests);
+        }
+
+        Thread.sleep(properties.warmup().toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(Map::clear);
+        AllocationSnapshot start = AllocationSnapshot.take();
+
+        Thread.sleep(properties.duration().toMillis());
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        AllocationSnapshot end = AllocationSnapshot.take();
+
+        stopped = true;
+        clients.shutdown();
+        if (!clients.awaitTermination(properties.requestTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            clients.shutdownNow();
+        }
+
+        return report(histograms, start, end);
+    }
+
+    private void sendRequests() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (!stopped) {
+            Operation operation = next(random);
+            HttpRequest request;
+            try {
+                request = operation.request(this, random).timeout(properties.requestTimeout()).build();
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+
+            int status;
+            long startedAt = System.nanoTime();
+            try {
+                status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (IOException ex) {
+                status = 0;
+            } catch (InterruptedException ex) {
+                return;
+            }
+            recorders.get(operation).recordValue(System.nanoTime() - startedAt);
+
+            if (status < 200 || status >= 300) {
+                errors.get(operation).computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+    }
+
+    private Operation next(ThreadLocalRandom random) {
+        int value = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (value < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private LoadTestReport report(Map<Operation, Histogram> histograms, AllocationSnapshot start,
+                                  AllocationSnapshot end) {
+        double seconds = (end.nanoTime() - start.nanoTime()) / 1e9;
+        List<LoadTestReport.OperationResult> results = new ArrayList<>();
+        Histogram all = new Histogram(3);
+        Map<Integer, Long> allErrors = new TreeMap<>();
+        for (Operation operation : operations) {
+            Histogram histogram = histograms.get(operation);
+            Map<Integer, Long> operationErrors = new TreeMap<>();
+            errors.get(operation).forEach((status, count) -> operationErrors.put(status, count.sum()));
+            operationErrors.forEach((status, count) -> allErrors.merge(status, count, Long::sum));
+            all.add(histogram);
+            results.add(LoadTestReport.OperationResult.of(operation.name().toLowerCase(), histogram,
+                    operationErrors, seconds));
+        }
+        results.add(LoadTestReport.OperationResult.of("all", all, allErrors, seconds));
+
+        double serverBytesPerSecond = -1;
+        double serverBytesPerRequest = -1;
+        if (!end.serverThreads().isEmpty()) {
+            long serverBytes = 0;
+            for (Map.Entry<Long, Long> thread : end.serverThreads().entrySet()) {
+                serverBytes += thread.getValue() - start.serverThreads().getOrDefault(thread.getKey(), 0L);
+            }
+            serverBytesPerSecond = serverBytes / seconds;
+            serverBytesPerRequest = all.getTotalCount() == 0 ? 0 : (double) serverBytes / all.getTotalCount();
+        }
+        LoadTestReport.Allocation allocation = new LoadTestReport.Allocation(
+                (end.jvmBytes() - start.jvmBytes()) / seconds, serverBytesPerSecond, serverBytesPerRequest,
+                end.gcCount() - start.gcCount(), end.gcMillis() - start.gcMillis());
+
+        return new LoadTestReport(seconds, properties.concurrency(), results, allocation);
+    }
+
+    URI uri(String path) {
+        return URI.create(baseUri + path);
+    }
+
+    long randomProductId(ThreadLocalRandom random) {
+        return productIds[random.nextInt(productIds.length)];
+    }
+
+    long nextSignup() {
+        return signups.incrementAndGet();
+    }
+
+    int getProductCount() {
+        return productIds.length;
+    }
+
+    int getPageSize() {
+        return properties.pageSize();
+    }
+
+    int getUserCount() {
+        return properties.users();
+    }
+
+    String getPassword() {
+        return properties.password();
+    }
+
+    /**
+     * Bytes allocated by the JVM and by each server thread, and garbage collections, at a point in time.
+     */
+    private record AllocationSnapshot(long nanoTime, long jvmBytes, Map<Long, Long> serverThreads, long gcCount,
+                                      long gcMillis) {
+
+        static AllocationSnapshot take() {
+            com.sun.management.ThreadMXBean threads =
+                    (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+            Map<Long, Long> serverThreads = new HashMap<>();
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                for (String prefix : SERVER_THREADS) {
+                    if (thread.getName().startsWith(prefix)) {
+                        serverThreads.put(thread.threadId(), threads.getThreadAllocatedBytes(thread.threadId()));
+                    }
+                }
+            }
+
+            long gcCount = 0;
+            long gcMillis = 0;
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+
+            return new AllocationSnapshot(System.nanoTime(), threads.getTotalThreadAllocatedBytes(), serverThreads,
+                    gcCount, gcMillis);
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.kawser.cleanspringbootproject.api.controllers;
 
 import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkChangeResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductBulkUpdateDTO;
 import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
 import com.kawser.cleanspringbootproject.api.services.IProductService;
 import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,9 +14,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.ResourceBundle;
@@ -62,6 +69,84 @@ public class ProductController {
         return ResponseEntity.ok(entities);
     }
 
+    /**
+     * This method returns a slice of products with pagination, sorting the results by the given fields.
+     * It is selected with "withTotal=false" and skips counting the total of products, so the response only tells
+     * whether there is a next page (the "last" field) instead of the total of pages and elements.
+     * It is not selected when the "cursor" parameter is present too: a keyset page never counts the total.
+     * @param page The page number to be returned.
+     * @param size The number of elements per page. Note: the default value is 10 and the maximum value is 60.
+     * @param sort An array of strings with the format "field,direction" to sort the results. Note: the default value is "name,asc".
+     * @return The slice of products found.
+     */
+    @Operation(summary = "Find a slice of products with pagination, without the total",
+            description = "Find a slice of products with pagination, without counting the total of products. Note: Maximum size is 60.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products found"),
+            @ApiResponse(responseCode = "400", description = "Invalid arguments to pagination"),
+            @ApiResponse(responseCode = "404", description = "Products not found")
+    })
+    @GetMapping(value = "/paginated", params = {"withTotal=false", "!cursor"})
+    public ResponseEntity<Slice<ProductDTO>> findAllWithoutTotal(
+            @RequestParam(required = false, defaultValue = "0") int page,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(value = "sort", defaultValue = "name,asc") String[] sort) {
+        Slice<ProductDTO> entities = productService.getSliceWithPagination(page, size, sort);
+        return ResponseEntity.ok(entities);
+    }
+
+    /**
+     * This method returns all products with keyset pagination, sorting the results by name.
+     * It is selected when the "cursor" parameter is present, with or without "withTotal=false"; send it empty to
+     * fetch the first page and then send the "nextCursor" of each response to fetch the following one.
+     * @param cursor The opaque continuation token returned by the previous page, empty for the first page.
+     * @param size The number of elements per page. Note: the default value is 10 and the maximum value is 60.
+     * @param direction The direction to sort the results by name, "asc" or "desc". Note: the default value is "asc".
+     * @return The page of products found and the cursor of the next page.
+     */
+    @Operation(summary = "Find all products with keyset pagination",
+            description = "Find all products with keyset pagination. Send an empty cursor to fetch the first page. Note: Maximum size is 60.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products found"),
+            @ApiResponse(responseCode = "400", description = "Invalid arguments to pagination or invalid cursor"),
+            @ApiResponse(responseCode = "404", description = "Products not found")
+    })
+    @GetMapping(value = "/paginated", params = "cursor")
+    public ResponseEntity<CursorPageDTO<ProductDTO>> findAllWithCursor(
+            @RequestParam(required = false, defaultValue = "") String cursor,
+            @RequestParam(required = false, defaultValue = "10") int size,
+            @RequestParam(required = false, defaultValue = "asc") String direction) {
+        CursorPageDTO<ProductDTO> entities = productService.getWithCursor(cursor, size, direction);
+        return ResponseEntity.ok(entities);
+    }
+
+    /**
+     * This method searches the products whose name or description match the query, the best ranked first, with
+     * keyset pagination: send no cursor to fetch the first page and then send the "nextCursor" of each response to
+     * fetch the following one.
+     * Only the 1000 best ranked matching products (api.products.search.max-candidates) are returned, so a broad
+     * query should be narrowed to find the others.
+     * @param query The text to search for, between 3 and 100 characters.
+     * @param cursor The opaque continuation token returned by the previous page, empty for the first page.
+     * @param size The number of elements per page. Note: the default value is 10 and the maximum value is 60.
+     * @return The page of products found with their rank, and the cursor of the next page.
+     */
+    @Operation(summary = "Search products",
+            description = "Search the products by the words of their name and description, ranked by relevance, with keyset pagination. Note: Maximum size is 60, and only the 1000 best ranked matching products are returned.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products found"),
+            @ApiResponse(responseCode = "400", description = "Invalid query, arguments to pagination or cursor"),
+            @ApiResponse(responseCode = "404", description = "Products not found")
+    })
+    @GetMapping("/search")
+    public ResponseEntity<CursorPageDTO<ProductSearchResultDTO>> search(
+            @RequestParam(name = "q") String query,
+            @RequestParam(required = false, defaultValue = "") String cursor,
+            @RequestParam(required = false, defaultValue = "10") int size) {
+        CursorPageDTO<ProductSearchResultDTO> results = productService.searchProducts(query, cursor, size);
+        return ResponseEntity.ok(results);
+    }
+
     /**
      * This method creates a new product with the given data.
      * @param productDTO The DTO of the product to be created, passed as a request body.
@@ -77,6 +162,27 @@ public class ProductController {
         return ResponseEntity.ok(bundle.getString("product.successfully_created"));
     }
 
+    /**
+     * This method creates many products at once with the given data.
+     * Each product is validated and checked on its own, so an invalid or duplicate product does not prevent the
+     * others from being created.
+     * @param products The DTOs of the products to be created, passed as a request body. Note: the maximum number of products is configured by api.products.bulk.max-size.
+     * @return The number of products created and rejected, and the result of each product in the order of the request.
+     */
+    @Operation(summary = "Create products in bulk",
+            description = "Create many products at once, returning the result of each one. Note: Maximum size is configured by api.products.bulk.max-size.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Result of each product"),
+            @ApiResponse(responseCode = "400", description = "Too many products in the request")
+    })
+    @PostMapping("/bulk-create")
+    public ResponseEntity<BulkResultDTO> saveAll(
+            @RequestBody List<ProductDTO> products) {
+
+        BulkResultDTO result = productService.createProducts(products);
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * This method returns a specific product by its ID. 
      * @param productId The ID of the product to be found, passed as a request parameter.
@@ -123,4 +229,43 @@ public class ProductController {
         productService.deleteProduct(productId);
         return ResponseEntity.ok(bundle.getString("product.successfully_deleted"));
     }
+
+    /**
+     * This method updates the price of many products at once, either to a new price or by multiplying it by a
+     * factor (e.g. 1.1 to raise it by 10%).
+     * The products are updated by set-based statements without being loaded, the IDs that do not exist are skipped.
+     * @param update The IDs of the products and their new price or price factor, passed as a request body. Note: the maximum number of IDs is configured by api.products.bulk.max-ids.
+     * @return The number of distinct IDs of the request and the number of products updated.
+     */
+    @Operation(summary = "Update the price of products in bulk",
+            description = "Set the price of many products, or multiply it by a factor, with set-based statements. Note: Maximum size is configured by api.products.bulk.max-ids.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of products updated"),
+            @ApiResponse(responseCode = "400", description = "Invalid change or too many IDs in the request")
+    })
+    @PutMapping("/bulk-update")
+    public ResponseEntity<BulkChangeResultDTO> updateAll(
+            @RequestBody @Valid ProductBulkUpdateDTO update) {
+
+        return ResponseEntity.ok(productService.updateProducts(update));
+    }
+
+    /**
+     * This method deletes many products at once.
+     * The products are deleted by set-based statements without being loaded, the IDs that do not exist are skipped.
+     * @param productIds The IDs of the products to be deleted, passed as a request body. Note: the maximum number of IDs is configured by api.products.bulk.max-ids.
+     * @return The number of distinct IDs of the request and the number of products deleted.
+     */
+    @Operation(summary = "Delete products in bulk",
+            description = "Delete many products by their IDs with set-based statements. Note: Maximum size is configured by api.products.bulk.max-ids.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Number of products deleted"),
+            @ApiResponse(responseCode = "400", description = "Too many IDs in the request")
+    })
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<BulkChangeResultDTO> deleteAll(
+            @RequestBody List<Long> productIds) {
+
+        return ResponseEntity.ok(productService.deleteProducts(productIds));
+    }
 }
@@ -0,0 +1,65 @@
+package com.kawser.cleanspringbootproject.api.controllers;
+
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.services.IProductExportService;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * The ProductExportController class is responsible for handling the HTTP requests that export the whole catalog of
+ * products as a file.
+ * It uses the ProductExportService to read the products and write the file.
+ *
+ * @see ProductExportService
+ */
+@RestController
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "403", description = "You are not authorized to access this resource"),
+})
+@RequestMapping("/products/export")
+public class ProductExportController {
+
+    private final IProductExportService productExportService;
+
+    public ProductExportController(IProductExportService productExportService) {
+        this.productExportService = productExportService;
+    }
+
+    /**
+     * This method exports every product, ordered by id, in the format of the import files.
+     * The body is written by an async task as the products are read from the database, so the request thread is
+     * released and the response starts before the last product is read. An error after the response has started
+     * cannot change its status: the connection is closed and the file is left truncated.
+     * @param format The format of the file, NDJSON (one JSON product per line) by default, or CSV.
+     * @return The file of products, as an attachment.
+     */
+    @Operation(summary = "Export every product",
+            description = "Export every product as an NDJSON or CSV file, streamed as the products are read from the database. The file can be imported as it is.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "File of products"),
+            @ApiResponse(responseCode = "400", description = "The format is not NDJSON or CSV")
+    })
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(defaultValue = "NDJSON") ProductFileFormat format) {
+
+        StreamingResponseBody body = output -> productExportService.exportProducts(format, output);
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+}
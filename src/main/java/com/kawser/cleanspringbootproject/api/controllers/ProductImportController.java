@@ -0,0 +1,115 @@
+package com.kawser.cleanspringbootproject.api.controllers;
+
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductImportJobDTO;
+import com.kawser.cleanspringbootproject.api.services.IProductImportService;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The ProductImportController class is responsible for handling the HTTP requests that import files of products
+ * and report the progress of the imports.
+ * It uses the ProductImportService to read the files and write the products.
+ *
+ * @see ProductImportService
+ */
+@RestController
+@ApiResponses(value = {
+        @ApiResponse(responseCode = "403", description = "You are not authorized to access this resource"),
+})
+@RequestMapping("/products/import")
+public class ProductImportController {
+
+    private final IProductImportService productImportService;
+
+    public ProductImportController(IProductImportService productImportService) {
+        this.productImportService = productImportService;
+    }
+
+    /**
+     * This method creates a pending import job, whose id is returned before its file is sent, so the progress of the
+     * import can be followed from the start of the upload.
+     * @return The pending job, with the URI to which its file is sent in the Location header.
+     */
+    @Operation(summary = "Create an import job",
+            description = "Create a pending import job, whose file is then sent with a PUT to the URI of the job")
+    @ApiResponse(responseCode = "201", description = "Import job created")
+    @PostMapping("/jobs")
+    public ResponseEntity<ProductImportJobDTO> createJob() {
+        ProductImportJobDTO job = productImportService.createJob();
+        return ResponseEntity.created(URI.create("/products/import/" + job.id()))
+                .body(job);
+    }
+
+    /**
+     * This method imports the products of the file sent as the request body into a pending job, read as it is
+     * uploaded.
+     * The format is chosen by the content type: application/x-ndjson for one JSON product per line, or text/csv for
+     * a header row naming the columns (code, name, price, description) followed by one product per row.
+     * The response is sent when the whole file is read; meanwhile, the progress of the job can be followed with
+     * the jobs endpoints.
+     * @param jobId The ID of the pending job, passed as a path variable.
+     * @param contentType The content type of the file, with its charset (UTF-8 by default).
+     * @param body The content of the file.
+     * @return The final state of the import job.
+     */
+    @Operation(summary = "Import a file of products",
+            description = "Import the products of an NDJSON or CSV file into a pending import job, read and written in chunks as it is uploaded. Invalid or duplicate records are reported without stopping the import.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Final state of the import job"),
+            @ApiResponse(responseCode = "404", description = "Import job not found"),
+            @ApiResponse(responseCode = "409", description = "The import job already received its file"),
+            @ApiResponse(responseCode = "415", description = "The content type is not application/x-ndjson or text/csv")
+    })
+    @PutMapping(value = "/{jobId}", consumes = {MediaType.APPLICATION_NDJSON_VALUE, ProductFileFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<ProductImportJobDTO> importProducts(
+            @PathVariable String jobId,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) {
+
+        Charset charset = contentType.getCharset() != null ? contentType.getCharset() : StandardCharsets.UTF_8;
+        return ResponseEntity.ok(productImportService.importProducts(jobId, ProductFileFormat.from(contentType), body,
+                charset));
+    }
+
+    /**
+     * This method returns the progress of an import job.
+     * @param jobId The ID of the job, passed as a path variable.
+     * @return The progress of the job.
+     */
+    @Operation(summary = "Find an import job by its ID", description = "Find the progress of an import job by its ID")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import job found"),
+            @ApiResponse(responseCode = "404", description = "Import job not found")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ProductImportJobDTO> findJob(
+            @PathVariable String jobId) {
+
+        return ResponseEntity.ok(productImportService.getJob(jobId));
+    }
+
+    /**
+     * This method returns the progress of the recent import jobs, pending, running or finished, the most recent
+     * first.
+     * @return The progress of the jobs.
+     */
+    @Operation(summary = "Find the recent import jobs", description = "Find the progress of the recent import jobs, the most recent first")
+    @ApiResponse(responseCode = "200", description = "Import jobs found")
+    @GetMapping
+    public ResponseEntity<List<ProductImportJobDTO>> findJobs() {
+        return ResponseEntity.ok(productImportService.getJobs());
+    }
+}
@@ -11,8 +11,14 @@ import java.time.LocalDateTime;
 @Setter
 public abstract class Base<T> {
 
+    /**
+     * The id of the entity, taken from a sequence of its own named after its table (e.g. products_seq for the table
+     * products), which must exist in the migrations.
+     * Unlike an identity column, the ids are known before the insert, so Hibernate can send the inserts in JDBC
+     * batches, and each call to the sequence reserves 50 ids.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     private T id;
 
     @Column(name = "entry_by")
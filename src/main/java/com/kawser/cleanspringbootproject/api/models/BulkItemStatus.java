@@ -0,0 +1,13 @@
+package com.kawser.cleanspringbootproject.api.models;
+
+/**
+ * Enum to represent the result of a product of a bulk request.
+ * Contains the status: created, invalid (the product breaks a validation rule) and duplicate (its code or name is
+ * already used by a product saved or by a previous product of the request).
+ */
+public enum BulkItemStatus {
+
+    CREATED,
+    INVALID,
+    DUPLICATE
+}
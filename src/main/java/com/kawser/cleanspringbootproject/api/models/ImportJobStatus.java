@@ -0,0 +1,14 @@
+package com.kawser.cleanspringbootproject.api.models;
+
+/**
+ * Enum to represent the status of a product import job.
+ * Contains the status: pending (the job was created and waits for its file), running, completed (the whole file was
+ * read) and failed (the file could not be read to the end, the chunks written before the failure are kept).
+ */
+public enum ImportJobStatus {
+
+    PENDING,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
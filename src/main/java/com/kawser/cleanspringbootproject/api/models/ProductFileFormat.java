@@ -0,0 +1,48 @@
+package com.kawser.cleanspringbootproject.api.models;
+
+import lombok.Getter;
+import org.springframework.http.MediaType;
+
+/**
+ * Enum to represent the formats of a file of products, imported or exported.
+ * Contains the formats: NDJSON (one JSON product per line) and CSV (a header row with the columns code, name, price
+ * and description, then one product per row).
+ */
+public enum ProductFileFormat {
+
+    NDJSON(MediaType.APPLICATION_NDJSON, "ndjson"),
+    CSV(MediaType.parseMediaType("text/csv"), "csv");
+
+    /**
+     * The CSV content type, which has no constant in MediaType.
+     */
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    @Getter
+    private final MediaType mediaType;
+
+    /**
+     * The extension of the files of this format, without the dot.
+     */
+    @Getter
+    private final String extension;
+
+    ProductFileFormat(MediaType mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * This method will return the format of the given content type, ignoring its parameters (e.g. charset).
+     * @param contentType The content type of the request.
+     * @return The format, or null if the content type is not supported.
+     */
+    public static ProductFileFormat from(MediaType contentType) {
+        for (ProductFileFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.kawser.cleanspringbootproject.api.models;
+
+import com.kawser.cleanspringbootproject.api.models.dto.ProductImportJobDTO;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A product import job, updated by the thread reading the file while it is read from other threads to report its
+ * progress. It is kept in memory and not saved: only the counters and the first rejected records are held, so its
+ * size does not depend on the size of the file.
+ * A job is created PENDING, so its id is known before the file is sent, and is started once, when the file is.
+ *
+ * @see ProductImportJobDTO
+ */
+public class ProductImportJob {
+
+    @Getter
+    private final String id = UUID.randomUUID().toString();
+
+    private final int maxErrors;
+
+    private volatile ProductFileFormat format;
+
+    private final Instant createdAt = Instant.now();
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+
+    @Getter
+    private volatile ImportJobStatus status = ImportJobStatus.PENDING;
+    private volatile String failure;
+
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong committed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong invalid = new AtomicLong();
+    private final AtomicLong duplicate = new AtomicLong();
+
+    private final List<ProductImportJobDTO.ImportErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * @param maxErrors Number of rejected records kept to be reported
+     */
+    public ProductImportJob(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * This method will mark the job as running, if it is still pending.
+     * @param format The format of the imported file.
+     * @return Whether the job was started, false if its file was already sent.
+     */
+    public synchronized boolean start(ProductFileFormat format) {
+        if (status != ImportJobStatus.PENDING) {
+            return false;
+        }
+        this.format = format;
+        startedAt = Instant.now();
+        status = ImportJobStatus.RUNNING;
+        return true;
+    }
+
+    /**
+     * This method will tell whether the job is completed or failed.
+     */
+    public boolean isFinished() {
+        ImportJobStatus current = status;
+        return current == ImportJobStatus.COMPLETED || current == ImportJobStatus.FAILED;
+    }
+
+    /**
+     * This method will count a record read from the file.
+     */
+    public void recordRead() {
+        read.incrementAndGet();
+    }
+
+    /**
+     * This method will count a product created.
+     */
+    public void recordCreated() {
+        created.incrementAndGet();
+    }
+
+    /**
+     * This method will count a rejected record, and keep it if less than maxErrors records were kept.
+     * @param record The number of the record in the file.
+     * @param status The reason of the rejection, INVALID or DUPLICATE.
+     * @param message The description of the rejection.
+     */
+    public void recordRejected(long record, BulkItemStatus status, String message) {
+        (status == BulkItemStatus.DUPLICATE ? duplicate : invalid).incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                errors.add(new ProductImportJobDTO.ImportErrorDTO(record, status, message));
+            }
+        }
+    }
+
+    /**
+     * This method will count the records of a chunk that was written.
+     * @param records The number of records of the chunk.
+     */
+    public void recordCommitted(int records) {
+        committed.addAndGet(records);
+    }
+
+    /**
+     * This method will mark the job as completed.
+     */
+    public void complete() {
+        finishedAt = Instant.now();
+        status = ImportJobStatus.COMPLETED;
+    }
+
+    /**
+     * This method will mark the job as failed.
+     * @param reason The reason why the file could not be read to the end.
+     */
+    public void fail(String reason) {
+        failure = reason;
+        finishedAt = Instant.now();
+        status = ImportJobStatus.FAILED;
+    }
+
+    /**
+     * This method will return the progress of the job.
+     */
+    public ProductImportJobDTO toDTO() {
+        List<ProductImportJobDTO.ImportErrorDTO> errorsCopy;
+        synchronized (errors) {
+            errorsCopy = List.copyOf(errors);
+        }
+        return new ProductImportJobDTO(id, format, status, createdAt, startedAt, finishedAt, read.get(), committed.get(),
+                created.get(), invalid.get(), duplicate.get(), errorsCopy, failure);
+    }
+}
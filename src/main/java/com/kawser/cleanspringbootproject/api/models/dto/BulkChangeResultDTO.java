@@ -0,0 +1,11 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+/**
+ * It is a DTO that represents the result of a bulk update or delete, run as set-based statements: the number of
+ * products asked for and the number of products changed, fewer when some of the IDs do not exist.
+ *
+ * @param requested the number of distinct IDs of the request
+ * @param affected the number of products updated or deleted
+ */
+public record BulkChangeResultDTO(int requested, int affected) {
+}
@@ -0,0 +1,15 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import com.kawser.cleanspringbootproject.api.models.BulkItemStatus;
+
+/**
+ * It is a DTO that represents the result of a product of a bulk request.
+ *
+ * @param index the position of the product in the request, starting at 0
+ * @param code the code of the product
+ * @param status the result of the product
+ * @param id the id of the product, null if it was not saved
+ * @param message the reason why the product was not saved, null if it was saved
+ */
+public record BulkItemResultDTO(int index, String code, BulkItemStatus status, Long id, String message) {
+}
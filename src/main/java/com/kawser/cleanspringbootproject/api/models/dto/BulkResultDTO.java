@@ -0,0 +1,14 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import java.util.List;
+
+/**
+ * It is a DTO that represents the result of a bulk request, contains the number of products saved and rejected
+ * and the result of each product, in the order of the request.
+ *
+ * @param succeeded the number of products saved
+ * @param failed the number of products rejected
+ * @param items the result of each product
+ */
+public record BulkResultDTO(int succeeded, int failed, List<BulkItemResultDTO> items) {
+}
@@ -0,0 +1,14 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import java.util.List;
+
+/**
+ * It is a DTO that represents a page of a keyset (seek) pagination, contains the elements of the page
+ * and the opaque token to be sent back to fetch the next page.
+ *
+ * @param content the elements of the page
+ * @param nextCursor the continuation token of the next page, null if this is the last page
+ * @param hasNext true if there are more elements after this page
+ */
+public record CursorPageDTO<T>(List<T> content, String nextCursor, boolean hasNext) {
+}
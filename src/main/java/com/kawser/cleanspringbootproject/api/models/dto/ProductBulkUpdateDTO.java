@@ -0,0 +1,36 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+/**
+ * It is a DTO that represents a change applied to many products at once: either a new price, or a factor their
+ * current price is multiplied by (e.g. 0.9 for a 10% discount), the result being rounded to two decimals.
+ *
+ * @param ids the IDs of the products to change
+ * @param price the new price of the products
+ * @param priceFactor the factor the prices of the products are multiplied by
+ */
+public record ProductBulkUpdateDTO(
+        @NotEmpty(message = "Product ids cannot be empty")
+        List<@NotNull(message = "Product id cannot be null") Long> ids,
+
+        @Min(value = 0, message = "Price cannot be less than zero")
+        Double price,
+
+        @DecimalMin(value = "0", message = "Price factor cannot be less than zero")
+        Double priceFactor
+) {
+
+    @JsonIgnore
+    @AssertTrue(message = "Either price or priceFactor must be given, not both")
+    public boolean isSinglePriceChange() {
+        return (price == null) != (priceFactor == null);
+    }
+}
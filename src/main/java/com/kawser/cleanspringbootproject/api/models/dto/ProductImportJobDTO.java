@@ -0,0 +1,52 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+import com.kawser.cleanspringbootproject.api.models.BulkItemStatus;
+import com.kawser.cleanspringbootproject.api.models.ImportJobStatus;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * It is a DTO that represents the progress of a product import job at a point in time.
+ *
+ * @param id the id of the job
+ * @param format the format of the imported file, null while the job is pending
+ * @param status the status of the job
+ * @param createdAt the time the job was created
+ * @param startedAt the time the file started to be read, null while the job is pending
+ * @param finishedAt the time the job finished, null while it is running
+ * @param read the number of records read from the file
+ * @param committed the number of records whose chunk was written, created or rejected
+ * @param created the number of products created
+ * @param invalid the number of records rejected because they could not be read or broke a validation rule
+ * @param duplicate the number of records rejected because their code or name was already used
+ * @param errors the first rejected records, the following ones are only counted
+ * @param failure the reason why the file could not be read to the end, null if it was
+ */
+public record ProductImportJobDTO(
+        String id,
+        ProductFileFormat format,
+        ImportJobStatus status,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt,
+        long read,
+        long committed,
+        long created,
+        long invalid,
+        long duplicate,
+        List<ImportErrorDTO> errors,
+        String failure
+) {
+
+    /**
+     * A record of the file that was rejected.
+     *
+     * @param record the number of the record in the file, starting at 1
+     * @param status the reason of the rejection, INVALID or DUPLICATE
+     * @param message the description of the rejection
+     */
+    public record ImportErrorDTO(long record, BulkItemStatus status, String message) {
+    }
+}
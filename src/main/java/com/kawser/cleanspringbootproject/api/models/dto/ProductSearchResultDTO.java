@@ -0,0 +1,11 @@
+package com.kawser.cleanspringbootproject.api.models.dto;
+
+/**
+ * It is a DTO that represents a product found by a search, with the rank of the product for the query.
+ * The higher the rank, the better the product matches; ranks are only comparable within the same query.
+ *
+ * @param product the product found
+ * @param rank the rank of the product for the query
+ */
+public record ProductSearchResultDTO(ProductDTO product, float rank) {
+}
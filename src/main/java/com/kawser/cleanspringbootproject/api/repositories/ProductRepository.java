@@ -1,12 +1,179 @@
 package com.kawser.cleanspringbootproject.api.repositories;
 
 import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ProductRepository extends JpaRepository<Product, Long> {
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductSearchRepository {
+
+    /**
+     * Number of rows fetched from the database at a time by streamAllByOrderByIdAsc.
+     */
+    int STREAM_FETCH_SIZE = 1000;
 
     boolean existsByCode(String code);
 
     boolean existsByName(String name);
 
-}   
+    /**
+     * Find a page of products with pagination, selected straight into DTOs.
+     * The constructor expression only reads the exposed columns and skips the hydration of managed entities.
+     *
+     * @param pageable The pagination and sorting information.
+     * @return The page of products found.
+     */
+    @Query(value = "SELECT new com.kawser.cleanspringbootproject.api.models.dto.ProductDTO(p.code, p.name, p.price, p.description) FROM Product p",
+            countQuery = "SELECT count(p) FROM Product p")
+    Page<ProductDTO> findPageProjectedBy(Pageable pageable);
+
+    /**
+     * Find a slice of products with pagination, selected straight into DTOs.
+     * Unlike findPageProjectedBy, it does not count the table: it fetches one row more than the page size
+     * to know if there is a next slice.
+     *
+     * @param pageable The pagination and sorting information.
+     * @return The slice of products found.
+     */
+    @Query("SELECT new com.kawser.cleanspringbootproject.api.models.dto.ProductDTO(p.code, p.name, p.price, p.description) FROM Product p")
+    Slice<ProductDTO> findSliceProjectedBy(Pageable pageable);
+
+    /**
+     * Find a product by its id, selected straight into a DTO.
+     *
+     * @param id The id of the product.
+     * @return The DTO of the product found.
+     */
+    @Query("SELECT new com.kawser.cleanspringbootproject.api.models.dto.ProductDTO(p.code, p.name, p.price, p.description) FROM Product p WHERE p.id = :id")
+    Optional<ProductDTO> findProjectedById(@Param("id") Long id);
+
+    /**
+     * Find the products whose code or name is one of the given ones, selected straight into DTOs.
+     * Used to check the uniqueness of the codes and names of many new products with a single query.
+     *
+     * @param codes The codes to look for.
+     * @param names The names to look for.
+     * @return The products found.
+     */
+    @Query("SELECT new com.kawser.cleanspringbootproject.api.models.dto.ProductDTO(p.code, p.name, p.price, p.description) FROM Product p WHERE p.code IN :codes OR p.name IN :names")
+    List<ProductDTO> findProjectedByCodeInOrNameIn(@Param("codes") Collection<String> codes, @Param("names") Collection<String> names);
+
+    /**
+     * Find the first products ordered by name and id, in ascending order.
+     * Used to fetch the first page of a keyset pagination.
+     *
+     * @param limit The maximum number of products to return.
+     * @return The products found.
+     */
+    List<Product> findByOrderByNameAscIdAsc(Limit limit);
+
+    /**
+     * Find the first products ordered by name and id, in descending order.
+     * Used to fetch the first page of a keyset pagination.
+     *
+     * @param limit The maximum number of products to return.
+     * @return The products found.
+     */
+    List<Product> findByOrderByNameDescIdDesc(Limit limit);
+
+    /**
+     * Find the products positioned after the given name and id, in ascending order.
+     * The row value comparison is served by the composite index on (name, id).
+     *
+     * @param name The name of the last product of the previous page.
+     * @param id The id of the last product of the previous page.
+     * @param limit The maximum number of products to return.
+     * @return The products found.
+     */
+    @Query("SELECT p FROM Product p WHERE (p.name, p.id) > (:name, :id) ORDER BY p.name ASC, p.id ASC")
+    List<Product> findNextByNameAndIdAsc(@Param("name") String name, @Param("id") Long id, Limit limit);
+
+    /**
+     * Find the products positioned after the given name and id, in descending order.
+     * The row value comparison is served by the composite index on (name, id).
+     *
+     * @param name The name of the last product of the previous page.
+     * @param id The id of the last product of the previous page.
+     * @param limit The maximum number of products to return.
+     * @return The products found.
+     */
+    @Query("SELECT p FROM Product p WHERE (p.name, p.id) < (:name, :id) ORDER BY p.name DESC, p.id DESC")
+    List<Product> findNextByNameAndIdDesc(@Param("name") String name, @Param("id") Long id, Limit limit);
+
+    /**
+     * Stream every product ordered by id, read from a forward-only cursor STREAM_FETCH_SIZE rows at a time.
+     * The products are loaded read-only, without snapshots for dirty checking, and must be detached by the caller
+     * once used so the persistence context does not grow with the table.
+     * It must be called and consumed inside a transaction, which also keeps the cursor open on PostgreSQL (with
+     * autocommit on, its driver reads the whole result set at once), and the stream must be closed.
+     *
+     * @return The stream of products.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + STREAM_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    Stream<Product> streamAllByOrderByIdAsc();
+
+    /**
+     * Set the price of the products with the given ids with a single UPDATE statement, without loading them.
+     * The pending changes are flushed before, and the persistence context is cleared after, so no managed product
+     * is left with the old price.
+     *
+     * @param ids The ids of the products.
+     * @param price The new price.
+     * @param updatedBy The id of the user who updates the products.
+     * @param updatedDate The date of the update.
+     * @return The number of products updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.price = :price, p.updatedBy = :updatedBy, p.updatedDate = :updatedDate WHERE p.id IN :ids")
+    int updatePriceByIdIn(@Param("ids") Collection<Long> ids, @Param("price") Double price,
+                          @Param("updatedBy") long updatedBy, @Param("updatedDate") LocalDateTime updatedDate);
+
+    /**
+     * Multiply the price of the products with the given ids by a factor, rounded to two decimals, with a single
+     * UPDATE statement, without loading them.
+     * The pending changes are flushed before, and the persistence context is cleared after, so no managed product
+     * is left with the old price.
+     *
+     * @param ids The ids of the products.
+     * @param factor The factor the prices are multiplied by.
+     * @param updatedBy The id of the user who updates the products.
+     * @param updatedDate The date of the update.
+     * @return The number of products updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.price = round(p.price * :factor, 2), p.updatedBy = :updatedBy, p.updatedDate = :updatedDate WHERE p.id IN :ids")
+    int multiplyPriceByIdIn(@Param("ids") Collection<Long> ids, @Param("factor") Double factor,
+                            @Param("updatedBy") long updatedBy, @Param("updatedDate") LocalDateTime updatedDate);
+
+    /**
+     * Delete the products with the given ids with a single DELETE statement, without loading them.
+     * The pending changes are flushed before, and the persistence context is cleared after, so no deleted product
+     * is left managed.
+     *
+     * @param ids The ids of the products.
+     * @return The number of products deleted.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Product p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+}
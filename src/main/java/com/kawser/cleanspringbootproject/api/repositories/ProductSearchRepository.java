@@ -0,0 +1,44 @@
+package com.kawser.cleanspringbootproject.api.repositories;
+
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
+
+import java.util.List;
+
+/**
+ * Search of the products by the words of their name and description, a fragment of the ProductRepository.
+ *
+ * @see ProductSearchRepositoryImpl
+ */
+public interface ProductSearchRepository {
+
+    /**
+     * Position of the last product of a page of search results.
+     *
+     * @param rank the rank of the product
+     * @param id the id of the product, used to break ties between equal ranks
+     */
+    record SearchPosition(float rank, long id) {
+    }
+
+    /**
+     * A product found by a search, with its id to build the position of the next page.
+     *
+     * @param id the id of the product
+     * @param result the product and its rank
+     */
+    record SearchHit(long id, ProductSearchResultDTO result) {
+    }
+
+    /**
+     * Search the products matching the query, the best ranked first, then by id.
+     * Only the best maxCandidates matching products are returned over all the pages: the others are not returned.
+     *
+     * @param query The text to search for.
+     * @param maxCandidates The maximum number of best ranked matching products to return over all the pages.
+     * @param after The position of the last product of the previous page, null for the first page.
+     * @param limit The maximum number of products to return.
+     * @return The products found, with their id and rank.
+     */
+    List<SearchHit> search(String query, int maxCandidates, SearchPosition after, int limit);
+
+}
@@ -0,0 +1,117 @@
+package com.kawser.cleanspringbootproject.api.repositories;
+
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Implementation of the search of the products, with native queries as the ranking depends on the database.
+ * On PostgreSQL, a product matches if its words (products_search_vector) match the words of the query (websearch
+ * syntax: quotes for phrases, "or", "-" to exclude a word) or if its name or description contains the query. Its rank
+ * is the ts_rank of the words, the name weighing more than the description, plus the trigram similarity of the name
+ * to the query. The matches are found with the GIN indexes of V7__create-products-search-indexes.sql.
+ * On the other databases (H2 in the tests), a product matches if its name or description contains the query, and is
+ * ranked by where the query is found: the whole name, the start of the name, inside the name, or the description.
+ * Only the best maxCandidates matching products by (rank DESC, id ASC) are candidates to the pages: the matches are
+ * ranked as they are found, and the database keeps the best ones in a top-N sort of bounded memory instead of
+ * sorting all of them, however many products a broad query matches. The pages are walked with keyset pagination on
+ * (rank DESC, id ASC): only the candidates after the position are sorted and returned, instead of all the products
+ * of the previous pages as with an OFFSET.
+ */
+public class ProductSearchRepositoryImpl implements ProductSearchRepository {
+
+    private static final String POSTGRESQL_RANK = """
+            CAST(ts_rank(products_search_vector(p.name, p.description), websearch_to_tsquery('english', :query))
+                 + similarity(lower(p.name), :lowerQuery) AS real)""";
+
+    private static final String POSTGRESQL_MATCH = """
+            WHERE products_search_vector(p.name, p.description) @@ websearch_to_tsquery('english', :query)
+               OR lower(p.name) LIKE :contains ESCAPE '\\'
+               OR lower(p.description) LIKE :contains ESCAPE '\\'
+            """;
+
+    private static final String PORTABLE_RANK = """
+            CAST(CASE WHEN lower(p.name) = :lowerQuery THEN 4
+                      WHEN lower(p.name) LIKE :startsWith ESCAPE '\\' THEN 3
+                      WHEN lower(p.name) LIKE :contains ESCAPE '\\' THEN 2
+                      ELSE 1 END AS real)""";
+
+    private static final String PORTABLE_MATCH = """
+            WHERE lower(p.name) LIKE :contains ESCAPE '\\'
+               OR lower(p.description) LIKE :contains ESCAPE '\\'
+            """;
+
+    private static final String AFTER_POSITION =
+            " WHERE r.search_rank < :rank OR (r.search_rank = :rank AND r.id > :id)";
+
+    private static final String ORDER = " ORDER BY r.search_rank DESC, r.id ASC";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private Boolean fullText;
+
+    @Override
+    public List<SearchHit> search(String query, int maxCandidates, SearchPosition after, int limit) {
+        boolean postgresql = isFullText();
+        String lowerQuery = query.toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(lowerQuery);
+
+        // The candidates are the best ranked matches, in the order of the pages, so the same ones are found on every page
+        String sql = "SELECT r.id, r.code, r.name, r.price, r.description, r.search_rank FROM ("
+                + "SELECT p.id, p.code, p.name, p.price, p.description, "
+                + (postgresql ? POSTGRESQL_RANK : PORTABLE_RANK) + " AS search_rank FROM products p "
+                + (postgresql ? POSTGRESQL_MATCH : PORTABLE_MATCH)
+                + " ORDER BY search_rank DESC, p.id ASC LIMIT :maxCandidates) r"
+                + (after != null ? AFTER_POSITION : "")
+                + ORDER;
+
+        Query search = entityManager.createNativeQuery(sql)
+                .setParameter("lowerQuery", lowerQuery)
+                .setParameter("contains", "%" + escaped + "%")
+                .setParameter("maxCandidates", maxCandidates)
+                .setMaxResults(limit);
+        if (postgresql) {
+            search.setParameter("query", query);
+        } else {
+            search.setParameter("startsWith", escaped + "%");
+        }
+        if (after != null) {
+            search.setParameter("rank", after.rank()).setParameter("id", after.id());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = search.getResultList();
+        return rows.stream()
+                .map(row -> new SearchHit(((Number) row[0]).longValue(), new ProductSearchResultDTO(
+                        new ProductDTO((String) row[1], (String) row[2],
+                                row[3] == null ? null : ((Number) row[3]).doubleValue(), (String) row[4]),
+                        ((Number) row[5]).floatValue())))
+                .toList();
+    }
+
+    /**
+     * Whether the database has the full-text search, i.e. is PostgreSQL.
+     */
+    private boolean isFullText() {
+        if (fullText == null) {
+            fullText = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                    .getJdbcServices().getDialect() instanceof PostgreSQLDialect;
+        }
+        return fullText;
+    }
+
+    /**
+     * Escapes the wildcards of LIKE, so they are matched as plain characters.
+     */
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
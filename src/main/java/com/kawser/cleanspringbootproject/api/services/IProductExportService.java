@@ -0,0 +1,12 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface IProductExportService {
+
+    long exportProducts(ProductFileFormat format, OutputStream output) throws IOException;
+
+}
@@ -0,0 +1,20 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductImportJobDTO;
+
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+public interface IProductImportService {
+
+    ProductImportJobDTO createJob();
+
+    ProductImportJobDTO importProducts(String jobId, ProductFileFormat format, InputStream input, Charset charset);
+
+    ProductImportJobDTO getJob(String jobId);
+
+    List<ProductImportJobDTO> getJobs();
+
+}
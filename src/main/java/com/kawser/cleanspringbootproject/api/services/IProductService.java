@@ -1,18 +1,38 @@
 package com.kawser.cleanspringbootproject.api.services;
 
+import com.kawser.cleanspringbootproject.api.models.dto.BulkChangeResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductBulkUpdateDTO;
 import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface IProductService {
 
     Iterable<ProductDTO> getWithPagination(int page, int size, String[] sort);
 
+    Slice<ProductDTO> getSliceWithPagination(int page, int size, String[] sort);
+
+    CursorPageDTO<ProductDTO> getWithCursor(String cursor, int size, String direction);
+
+    CursorPageDTO<ProductSearchResultDTO> searchProducts(String query, String cursor, int size);
+
     void createProduct(ProductDTO product);
 
+    BulkResultDTO createProducts(List<ProductDTO> products);
+
     Optional<ProductDTO> getProductById(Long productId);
 
     void updateProduct(Long productId, ProductDTO updatedProduct);
 
     void deleteProduct(Long productId);
 
+    BulkChangeResultDTO updateProducts(ProductBulkUpdateDTO update);
+
+    BulkChangeResultDTO deleteProducts(List<Long> productIds);
+
 }
\ No newline at end of file
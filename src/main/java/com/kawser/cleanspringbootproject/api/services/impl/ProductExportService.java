@@ -0,0 +1,72 @@
+package com.kawser.cleanspringbootproject.api.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.IProductExportService;
+import com.kawser.cleanspringbootproject.api.util.ProductExportWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * This class represents the service that is responsible for exporting the whole catalog of products.
+ * The products are read from a database cursor and written to the output as they are read, each one detached from
+ * the persistence context once written, so the memory used does not depend on the number of products: one batch of
+ * rows fetched by the driver, and the buffer of the writer.
+ * A client reading slower than the database keeps the cursor, and its transaction, open for longer.
+ *
+ * @see ProductRepository#streamAllByOrderByIdAsc()
+ * @see ProductExportWriter
+ */
+@Service
+@Slf4j
+public class ProductExportService implements IProductExportService {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * This method will write every product, ordered by id, to the output in the given format.
+     * The output is flushed but not closed.
+     * @param format The format of the file.
+     * @param output The destination of the file.
+     * @return The number of products written.
+     * @throws IOException If the output cannot be written, e.g. because the client went away.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long exportProducts(ProductFileFormat format, OutputStream output) throws IOException {
+        log.info("Exporting the products as {}", format);
+        ProductExportWriter writer = ProductExportWriter.of(format, output, objectMapper);
+        long written = 0;
+        try (Stream<Product> products = productRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                writer.write(ProductDTO.from(product));
+                entityManager.detach(product);
+                written++;
+            }
+        }
+        writer.flush();
+        log.info("Exported {} products as {}", written, format);
+        return written;
+    }
+}
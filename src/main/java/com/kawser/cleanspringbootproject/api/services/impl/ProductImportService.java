@@ -0,0 +1,229 @@
+package com.kawser.cleanspringbootproject.api.services.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawser.cleanspringbootproject.api.models.BulkItemStatus;
+import com.kawser.cleanspringbootproject.api.models.ImportJobStatus;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.ProductImportJob;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkItemResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductImportJobDTO;
+import com.kawser.cleanspringbootproject.api.services.IProductImportService;
+import com.kawser.cleanspringbootproject.api.services.IProductService;
+import com.kawser.cleanspringbootproject.api.util.ProductImportReader;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobAlreadyStartedException;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobNotFoundException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Predicate;
+
+/**
+ * This class represents the service that is responsible for importing files of products.
+ * The file is read from the request as it is uploaded, one record at a time, and the products are written in chunks
+ * of chunkSize, each one checked and inserted in its own transaction as a bulk request of the ProductService.
+ * Nothing is read from the request while a chunk is written, so a client sending faster than the database can
+ * write is slowed down by the flow control of the connection, and the memory used does not depend on the size of
+ * the file: one chunk, and the counters and first rejected records of the job.
+ * A job is created before its file is sent, so the client knows its id while the file is uploaded. The jobs are kept
+ * in memory to report their progress, the last retainedJobs of them: a running job is never dropped.
+ *
+ * @see ProductImportReader
+ * @see ProductImportJob
+ */
+@Service
+@Slf4j
+public class ProductImportService implements IProductImportService {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Number of products written per transaction, fetched from application.properties.
+     * It must not be greater than api.products.bulk.max-size.
+     */
+    @Value("${api.products.import.chunk-size}")
+    private int chunkSize;
+
+    /**
+     * Number of rejected records reported by a job, fetched from application.properties.
+     */
+    @Value("${api.products.import.max-errors}")
+    private int maxErrors;
+
+    /**
+     * Number of jobs kept in memory, fetched from application.properties.
+     */
+    @Value("${api.products.import.retained-jobs}")
+    private int retainedJobs;
+
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+
+    private final Queue<String> jobIds = new ConcurrentLinkedQueue<>();
+
+    /**
+     * This method will create a pending job, to which the file is then sent with importProducts.
+     * @return The pending job.
+     */
+    public ProductImportJobDTO createJob() {
+        ProductImportJob job = new ProductImportJob(maxErrors);
+        register(job);
+        log.info("Import job {} created", job.getId());
+        return job.toDTO();
+    }
+
+    /**
+     * This method will import the products of a file into a pending job, returning when the whole file is read.
+     * The progress of the job can be followed with getJob while it runs. A record that cannot be read or a product
+     * that is invalid or duplicate is rejected without stopping the import. If the file cannot be read to the end,
+     * the job fails and the chunks written before are kept.
+     *
+     * @param jobId The id of the pending job.
+     * @param format The format of the file.
+     * @param input The content of the file.
+     * @param charset The charset of the file.
+     * @throws ImportJobNotFoundException If the job does not exist or is no longer kept.
+     * @throws ImportJobAlreadyStartedException If the job already received a file.
+     * @return The final state of the job.
+     */
+    public ProductImportJobDTO importProducts(String jobId, ProductFileFormat format, InputStream input,
+                                              Charset charset) {
+        ProductImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        if (!job.start(format)) {
+            throw new ImportJobAlreadyStartedException(jobId);
+        }
+
+        log.info("Importing products from {}, job {}", format, job.getId());
+
+        try (ProductImportReader reader = ProductImportReader.of(format, input, charset, objectMapper)) {
+            List<ProductImportReader.ProductRecord> chunk = new ArrayList<>(chunkSize);
+            ProductImportReader.ProductRecord record;
+            while ((record = reader.next()) != null) {
+                job.recordRead();
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    writeChunk(job, chunk);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                writeChunk(job, chunk);
+            }
+            job.complete();
+        } catch (IOException | RuntimeException ex) {
+            log.error("Import job {} failed: {}", job.getId(), ex.getMessage());
+            job.fail(ex.getMessage());
+        }
+
+        ProductImportJobDTO result = job.toDTO();
+        log.info("Import job {} {}: {} created, {} invalid, {} duplicate", result.id(), result.status(),
+                result.created(), result.invalid(), result.duplicate());
+        return result;
+    }
+
+    /**
+     * This method will write a chunk of records in one transaction and count the result of each one.
+     */
+    private void writeChunk(ProductImportJob job, List<ProductImportReader.ProductRecord> chunk) {
+        List<ProductDTO> products = new ArrayList<>(chunk.size());
+        List<Long> numbers = new ArrayList<>(chunk.size());
+        for (ProductImportReader.ProductRecord record : chunk) {
+            if (record.error() != null) {
+                job.recordRejected(record.number(), BulkItemStatus.INVALID, record.error());
+            } else {
+                products.add(record.product());
+                numbers.add(record.number());
+            }
+        }
+
+        if (!products.isEmpty()) {
+            BulkResultDTO result = productService.createProducts(products);
+            for (BulkItemResultDTO item : result.items()) {
+                if (item.status() == BulkItemStatus.CREATED) {
+                    job.recordCreated();
+                } else {
+                    job.recordRejected(numbers.get(item.index()), item.status(), item.message());
+                }
+            }
+        }
+
+        // The persistence context of the request outlives the transaction of the chunk, the products written are
+        // detached so it does not grow with the file
+        entityManager.clear();
+        job.recordCommitted(chunk.size());
+    }
+
+    /**
+     * This method will keep a new job and drop the oldest ones beyond retainedJobs: the finished ones first, then
+     * the pending ones older than the new job, which have not read anything yet. The running jobs are kept, even
+     * beyond retainedJobs.
+     */
+    private synchronized void register(ProductImportJob job) {
+        jobs.put(job.getId(), job);
+        jobIds.add(job.getId());
+        evict(ProductImportJob::isFinished);
+        evict(oldest -> oldest != job && oldest.getStatus() == ImportJobStatus.PENDING);
+    }
+
+    private void evict(Predicate<ProductImportJob> evictable) {
+        Iterator<String> ids = jobIds.iterator();
+        while (jobIds.size() > retainedJobs && ids.hasNext()) {
+            String id = ids.next();
+            ProductImportJob oldest = jobs.get(id);
+            if (oldest == null || evictable.test(oldest)) {
+                ids.remove();
+                jobs.remove(id);
+            }
+        }
+    }
+
+    /**
+     * This method will return the progress of a job.
+     * @param jobId The id of the job.
+     * @throws ImportJobNotFoundException If the job does not exist or is no longer kept.
+     * @return The progress of the job.
+     */
+    public ProductImportJobDTO getJob(String jobId) {
+        ProductImportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * This method will return the progress of the jobs kept, the most recent first.
+     * @return The progress of the jobs.
+     */
+    public List<ProductImportJobDTO> getJobs() {
+        return jobs.values().stream()
+                .map(ProductImportJob::toDTO)
+                .sorted(Comparator.comparing(ProductImportJobDTO::createdAt).reversed())
+                .toList();
+    }
+}
@@ -1,29 +1,59 @@
 package com.kawser.cleanspringbootproject.api.services.impl;
 
+import com.kawser.cleanspringbootproject.api.models.BulkItemStatus;
 import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkChangeResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkItemResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductBulkUpdateDTO;
 import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
 import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.repositories.ProductSearchRepository;
 import com.kawser.cleanspringbootproject.api.services.IProductService;
+import com.kawser.cleanspringbootproject.api.util.AfterCommit;
+import com.kawser.cleanspringbootproject.api.util.CursorUtil;
+import com.kawser.cleanspringbootproject.api.util.ProductListingVersion;
 import com.kawser.cleanspringbootproject.auth.services.IAuthorizationService;
 import com.kawser.cleanspringbootproject.exception.api.domain.common.ModelValidationException;
 import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidArgumentsToPaginationException;
+import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidCursorException;
 import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidSortDirectionException;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.BulkSizeExceededException;
 import com.kawser.cleanspringbootproject.exception.api.domain.product.ProductNotFoundException;
 import com.kawser.cleanspringbootproject.exception.api.domain.product.ProductsEmptyException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
 
 /**
  * This class represents the service that is responsible for managing the products.
@@ -40,13 +70,52 @@ public class ProductService implements IProductService {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private CursorUtil cursorUtil;
+
+    @Autowired
+    private ProductListingVersion productListingVersion;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Value("${api.products.bulk.max-size}")
+    private int bulkMaxSize;
+
+    /**
+     * Maximum number of products in a bulk update or delete, fetched from application.properties.
+     */
+    @Value("${api.products.bulk.max-ids}")
+    private int bulkMaxIds;
+
+    /**
+     * Number of ids in the IN list of each statement of a bulk update or delete, fetched from application.properties.
+     */
+    @Value("${api.products.bulk.ids-per-statement}")
+    private int idsPerStatement;
+
+    /**
+     * Maximum number of best ranked matching products returned by a search, fetched from application.properties.
+     */
+    @Value("${api.products.search.max-candidates}")
+    private int searchMaxCandidates;
+
+    private final ResourceBundle bundle = ResourceBundle.getBundle("messages", Locale.getDefault());
+
     ProductService(IAuthorizationService authorizationService){
         this.authorizationService = authorizationService;
     }
 
     /**
      * Retrieve products with pagination.
+     * The products are selected straight into DTOs in a read-only transaction, so no managed entity is loaded.
      * Cacheable annotation is used to cache the result of this method, so that the next time it is called with the same parameters, the result is returned from the cache.
+     * Concurrent calls that miss the same key wait for a single load instead of all querying the database.
+     * The key starts with the version of the product listings, so any change to the products invalidates it.
+     * Its parts are kept apart in a SimpleKey, so page 1 of size 11 and page 11 of size 1 do not share it.
      *
      * @param page the page number
      * @param size the number of elements per page
@@ -57,9 +126,69 @@ public class ProductService implements IProductService {
      * @return the products list with pagination
      *
      */
-    @Cacheable(value = "products", key = "#page.toString() + #size.toString() + T(java.util.Arrays).toString(#sort)")
+    @Cacheable(value = "productListings", key = "new org.springframework.cache.interceptor.SimpleKey(@productListingVersion.current(), 'page', #page, #size, #sort)", sync = true)
+    @Transactional(readOnly = true)
     public Iterable<ProductDTO> getWithPagination(int page, int size, String[] sort) {
 
+        Pageable pageRequest = buildPageRequest(page, size, sort);
+
+        log.info("Getting all products with pagination, page {} and size {}", page, pageRequest.getPageSize());
+
+        Page<ProductDTO> productPage = productRepository.findPageProjectedBy(pageRequest);
+
+        if (!productPage.iterator().hasNext()) {
+            throw new ProductsEmptyException();
+        }
+
+        return productPage;
+    }
+
+    /**
+     * Retrieve a slice of products with pagination, without counting the total of products.
+     * Only one query is issued: it fetches one row more than the page size to know if there is a next slice.
+     * The products are selected straight into DTOs in a read-only transaction, so no managed entity is loaded.
+     * Cacheable annotation is used to cache the result of this method, so that the next time it is called with the same parameters, the result is returned from the cache.
+     * Concurrent calls that miss the same key wait for a single load instead of all querying the database.
+     * The key starts with the version of the product listings, so any change to the products invalidates it.
+     * Its parts are kept apart in a SimpleKey, as for the pages with a total.
+     *
+     * @param page the page number
+     * @param size the number of elements per page
+     * @param sort the sorting criteria (property and direction)
+     * @throws InvalidArgumentsToPaginationException If the page or size are negative, the exception InvalidArgumentsToPagination is thrown.
+     * @throws InvalidSortDirectionException If the sorting direction is invalid (not "asc" or "desc"), the exception InvalidSortDirectionException is thrown.
+     * @throws ProductsEmptyException If there are no products in the page, the exception ProductsEmptyException is thrown.
+     * @return the slice of products
+     */
+    @Cacheable(value = "productListings", key = "new org.springframework.cache.interceptor.SimpleKey(@productListingVersion.current(), 'slice', #page, #size, #sort)", sync = true)
+    @Transactional(readOnly = true)
+    public Slice<ProductDTO> getSliceWithPagination(int page, int size, String[] sort) {
+
+        Pageable pageRequest = buildPageRequest(page, size, sort);
+
+        log.info("Getting a slice of products with pagination, page {} and size {}", page, pageRequest.getPageSize());
+
+        Slice<ProductDTO> productSlice = productRepository.findSliceProjectedBy(pageRequest);
+
+        if (!productSlice.hasContent()) {
+            throw new ProductsEmptyException();
+        }
+
+        return productSlice;
+    }
+
+    /**
+     * Validate the pagination arguments and build the page request.
+     *
+     * @param page the page number
+     * @param size the number of elements per page, limited to 60
+     * @param sort the sorting criteria (property and direction)
+     * @throws InvalidArgumentsToPaginationException If the page or size are negative.
+     * @throws InvalidSortDirectionException If the sorting direction is invalid (not "asc" or "desc").
+     * @return the page request
+     */
+    private Pageable buildPageRequest(int page, int size, String[] sort) {
+
         if (page < 0 || size < 0) {
             throw new InvalidArgumentsToPaginationException();
         }
@@ -73,30 +202,159 @@ public class ProductService implements IProductService {
             size = 60;
         }
 
-        log.info("Getting all products with pagination, page {} and size {}", page, size);
-
         String property = sort[0];
         Sort.Direction direction = Sort.Direction.fromString(sort[1]);
 
-        Pageable pageRequest = PageRequest.of(page, size, Sort.by(direction, property));
+        return PageRequest.of(page, size, Sort.by(direction, property));
+    }
 
-        Page<Product> productPage = productRepository.findAll(pageRequest);
+    /**
+     * Retrieve products with keyset (seek) pagination, ordered by name and id.
+     * Instead of skipping an OFFSET of rows and counting the whole table, each page seeks directly to the position
+     * encoded in the cursor, so deep pages cost the same as the first one.
+     * The entities are needed to build the cursor from their id, so they are loaded in a read-only transaction
+     * to skip the dirty-checking snapshots.
+     * Cacheable annotation is used to cache the result of this method, so that the next time it is called with the same parameters, the result is returned from the cache.
+     * Concurrent calls that miss the same key wait for a single load instead of all querying the database.
+     * The key starts with the version of the product listings, so any change to the products invalidates it.
+     * Its parts are kept apart in a SimpleKey, so a cursor ending with a digit cannot run into the size.
+     *
+     * @param cursor the continuation token returned by the previous page, null or blank to fetch the first page
+     * @param size the number of elements per page
+     * @param direction the sorting direction ("asc" or "desc")
+     * @throws InvalidArgumentsToPaginationException If the size is less than 1, the exception InvalidArgumentsToPagination is thrown.
+     * @throws InvalidSortDirectionException If the sorting direction is invalid (not "asc" or "desc"), the exception InvalidSortDirectionException is thrown.
+     * @throws InvalidCursorException If the cursor cannot be decoded, the exception InvalidCursorException is thrown.
+     * @throws ProductsEmptyException If there are no products after the cursor, the exception ProductsEmptyException is thrown.
+     * @return the page of products and the cursor of the next page
+     */
+    @Cacheable(value = "productListings", key = "new org.springframework.cache.interceptor.SimpleKey(@productListingVersion.current(), 'cursor', #cursor, #size, #direction)", sync = true)
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductDTO> getWithCursor(String cursor, int size, String direction) {
 
-        if (!productPage.iterator().hasNext()) {
+        if (size < 1) {
+            throw new InvalidArgumentsToPaginationException();
+        }
+
+        if (!direction.equalsIgnoreCase("asc") && !direction.equalsIgnoreCase("desc")) {
+            throw new InvalidSortDirectionException();
+        }
+
+        // If the size is greater than 60, set it to 60
+        if (size > 60) {
+            size = 60;
+        }
+
+        log.info("Getting all products with keyset pagination, size {}", size);
+
+        boolean ascending = direction.equalsIgnoreCase("asc");
+
+        // Fetch one extra row to know if there is a next page without counting the table
+        Limit limit = Limit.of(size + 1);
+
+        List<Product> products;
+        if (cursor == null || cursor.isBlank()) {
+            products = ascending
+                    ? productRepository.findByOrderByNameAscIdAsc(limit)
+                    : productRepository.findByOrderByNameDescIdDesc(limit);
+        } else {
+            CursorUtil.Cursor position = cursorUtil.decode(cursor);
+            products = ascending
+                    ? productRepository.findNextByNameAndIdAsc(position.key(), position.id(), limit)
+                    : productRepository.findNextByNameAndIdDesc(position.key(), position.id(), limit);
+        }
+
+        if (products.isEmpty()) {
+            throw new ProductsEmptyException();
+        }
+
+        boolean hasNext = products.size() > size;
+        List<Product> pageContent = hasNext ? products.subList(0, size) : products;
+
+        String nextCursor = null;
+        if (hasNext) {
+            Product last = pageContent.get(pageContent.size() - 1);
+            nextCursor = cursorUtil.encode(last.getName(), last.getId());
+        }
+
+        return new CursorPageDTO<>(pageContent.stream().map(ProductDTO::from).toList(), nextCursor, hasNext);
+    }
+
+    /**
+     * Search the products whose name or description match the query, the best ranked first, with keyset pagination.
+     * The cursor holds the rank and the id of the last product of the page, so each page seeks past it instead of
+     * skipping an OFFSET of ranked products. The ranking depends on the database, see ProductSearchRepositoryImpl.
+     * Only the best searchMaxCandidates matching products are returned, so a query matching more products returns
+     * the most relevant of them only: the memory used to sort each page stays bounded, and a narrower query finds the
+     * others.
+     * The results are not cached: the queries are too diverse for the cache of the listings to be of use.
+     *
+     * @param query the text to search for, between 3 and 100 characters once trimmed
+     * @param cursor the continuation token returned by the previous page, null or blank to fetch the first page
+     * @param size the number of elements per page, limited to 60
+     * @throws ModelValidationException If the query is too short or too long, the exception ModelValidationException is thrown.
+     * @throws InvalidArgumentsToPaginationException If the size is less than 1, the exception InvalidArgumentsToPagination is thrown.
+     * @throws InvalidCursorException If the cursor cannot be decoded, the exception InvalidCursorException is thrown.
+     * @throws ProductsEmptyException If there are no products matching after the cursor, the exception ProductsEmptyException is thrown.
+     * @return the page of products found with their rank, and the cursor of the next page
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<ProductSearchResultDTO> searchProducts(String query, String cursor, int size) {
+
+        String trimmedQuery = query == null ? "" : query.trim();
+        if (trimmedQuery.length() < 3 || trimmedQuery.length() > 100) {
+            throw new ModelValidationException("product.invalid_search_query");
+        }
+
+        if (size < 1) {
+            throw new InvalidArgumentsToPaginationException();
+        }
+
+        // If the size is greater than 60, set it to 60
+        if (size > 60) {
+            size = 60;
+        }
+
+        log.info("Searching products, size {}", size);
+
+        ProductSearchRepository.SearchPosition after = null;
+        if (cursor != null && !cursor.isBlank()) {
+            CursorUtil.Cursor position = cursorUtil.decode(cursor);
+            try {
+                after = new ProductSearchRepository.SearchPosition(Float.parseFloat(position.key()), position.id());
+            } catch (NumberFormatException ex) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+
+        // Fetch one extra row to know if there is a next page without counting the matches
+        List<ProductSearchRepository.SearchHit> hits = productRepository.search(trimmedQuery, searchMaxCandidates, after, size + 1);
+
+        if (hits.isEmpty()) {
             throw new ProductsEmptyException();
         }
 
-        return productPage.map(ProductDTO::from);
+        boolean hasNext = hits.size() > size;
+        List<ProductSearchRepository.SearchHit> pageContent = hasNext ? hits.subList(0, size) : hits;
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductSearchRepository.SearchHit last = pageContent.get(pageContent.size() - 1);
+            nextCursor = cursorUtil.encode(Float.toString(last.result().rank()), last.id());
+        }
+
+        return new CursorPageDTO<>(pageContent.stream().map(ProductSearchRepository.SearchHit::result).toList(),
+                nextCursor, hasNext);
     }
 
     /**
      * Create a new product with the given data and save it to the database.
-     * CacheEvict annotation is used to remove all entries from the cache when a new product is created.
+     * The version of the product listings is incremented, so the cached listings are not returned anymore.
+     * No product is removed from the cache, as a product that did not exist is never cached.
      * 
      * @param product the data of the new product
      *
      */
-    @CacheEvict(value = "products", allEntries = true)
     public void createProduct(ProductDTO product) {
         log.info("Creating product with name {}", product.name());
 
@@ -120,25 +378,145 @@ public class ProductService implements IProductService {
         newProduct.setEntryDate(LocalDateTime.now());
 
         productRepository.save(newProduct);
+        productListingVersion.increment();
+    }
+
+    /**
+     * Create many products with the given data and save them to the database in one transaction.
+     * Each product is validated on its own, and the codes and names of all the valid products are checked against
+     * the saved products with a single query, instead of two queries per product. A product that is invalid, or
+     * whose code or name is already used by a saved product or by a previous product of the request, is rejected
+     * without rejecting the others.
+     * The products take their ids from a sequence, so they are inserted in JDBC batches.
+     * The version of the product listings is incremented once if any product is created, after the commit.
+     *
+     * @param products the data of the new products
+     * @throws BulkSizeExceededException If there are more products than api.products.bulk.max-size, the exception BulkSizeExceededException is thrown.
+     * @return the number of products created and rejected, and the result of each product in the order of the request
+     */
+    @Transactional
+    public BulkResultDTO createProducts(List<ProductDTO> products) {
+        log.info("Creating {} products in bulk", products.size());
+
+        if (products.size() > bulkMaxSize) {
+            throw new BulkSizeExceededException(products.size(), bulkMaxSize);
+        }
+
+        BulkItemResultDTO[] results = new BulkItemResultDTO[products.size()];
+        Set<String> codes = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < products.size(); i++) {
+            ProductDTO product = products.get(i);
+            String violations = validate(product);
+            if (violations != null) {
+                results[i] = new BulkItemResultDTO(i, product == null ? null : product.code(), BulkItemStatus.INVALID, null, violations);
+            } else {
+                codes.add(product.code());
+                names.add(product.name());
+            }
+        }
+
+        // One query for the codes and names already used, the ones of the new products are added as they are accepted
+        Set<String> usedCodes = new HashSet<>();
+        Set<String> usedNames = new HashSet<>();
+        if (!codes.isEmpty()) {
+            for (ProductDTO existing : productRepository.findProjectedByCodeInOrNameIn(codes, names)) {
+                usedCodes.add(existing.code());
+                usedNames.add(existing.name());
+            }
+        }
+
+        long currentUserId = authorizationService.getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Product> newProducts = new ArrayList<>();
+        List<Integer> newProductIndexes = new ArrayList<>();
+        for (int i = 0; i < products.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+
+            ProductDTO product = products.get(i);
+            if (usedCodes.contains(product.code())) {
+                results[i] = new BulkItemResultDTO(i, product.code(), BulkItemStatus.DUPLICATE, null,
+                        bundle.getString("product.code_already_exists").replace("{0}", product.code()));
+            } else if (usedNames.contains(product.name())) {
+                results[i] = new BulkItemResultDTO(i, product.code(), BulkItemStatus.DUPLICATE, null,
+                        bundle.getString("product.name_already_exists").replace("{0}", product.name()));
+            } else {
+                usedCodes.add(product.code());
+                usedNames.add(product.name());
+
+                Product newProduct = Product.builder()
+                        .code(product.code())
+                        .name(product.name())
+                        .price(product.price())
+                        .description(product.description())
+                        .build();
+                newProduct.setEntryBy(currentUserId);
+                newProduct.setEntryDate(now);
+                newProducts.add(newProduct);
+                newProductIndexes.add(i);
+            }
+        }
+
+        productRepository.saveAll(newProducts);
+        for (int j = 0; j < newProducts.size(); j++) {
+            int i = newProductIndexes.get(j);
+            results[i] = new BulkItemResultDTO(i, products.get(i).code(), BulkItemStatus.CREATED, newProducts.get(j).getId(), null);
+        }
+
+        if (!newProducts.isEmpty()) {
+            productListingVersion.increment();
+        }
+
+        log.info("Created {} of {} products in bulk", newProducts.size(), products.size());
+
+        return new BulkResultDTO(newProducts.size(), products.size() - newProducts.size(), List.of(results));
+    }
+
+    /**
+     * Validate a product of a bulk request.
+     *
+     * @param product the data of the product
+     * @return the messages of the broken rules, sorted and separated by "; ", or null if the product is valid
+     */
+    private String validate(ProductDTO product) {
+        if (product == null) {
+            return bundle.getString("product.bulk_item_missing");
+        }
+
+        Set<ConstraintViolation<ProductDTO>> violations = validator.validate(product);
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
     }
 
     /**
      * Retrieve a specific product by its ID. 
+     * The product is selected straight into a DTO in a read-only transaction, so no managed entity is loaded.
      * Cacheable annotation is used to cache the result of this method, so that the next time it is called with the same parameters, the result is returned from the cache.
+     * Concurrent calls that miss the same key wait for a single load instead of all querying the database.
      * 
      * @param productId the ID of the product to retrieve
      * @throws ProductNotFoundException If the product does not exist, the exception ProductNotFoundException is thrown.
      * @return the product with the given ID
      */
-    @Cacheable(value = "products", key = "#productId")
+    @Cacheable(value = "products", key = "#productId", sync = true)
+    @Transactional(readOnly = true)
     public Optional<ProductDTO> getProductById(Long productId) {
         log.info("Getting product by ID {}", productId);
 
-        Optional<Product> product = productRepository.findById(productId);
+        Optional<ProductDTO> product = productRepository.findProjectedById(productId);
         
         // Return the product if it exists, otherwise throw an exception
         if (product.isPresent()) {
-            return Optional.of(ProductDTO.from(product.get()));
+            return product;
         } else {
             throw new ProductNotFoundException(productId);
         }
@@ -146,14 +524,15 @@ public class ProductService implements IProductService {
 
     /**
      * Update the product with the given ID with the new data. 
-     * CacheEvict annotation is used to remove all entries from the cache when a product is updated.
+     * CacheEvict annotation is used to remove only this product from the cache when it is updated,
+     * and the version of the product listings is incremented, so the cached listings are not returned anymore.
      * 
      * @param productId the ID of the product to update
      * @param updatedProduct the new data of the product
      * @throws ProductNotFoundException If the product does not exist, the exception ProductNotFoundException is thrown.
      * 
      */
-    @CacheEvict(value = "products", allEntries = true)
+    @CacheEvict(value = "products", key = "#productId")
     public void updateProduct(Long productId, ProductDTO updatedProduct) {
         log.info("Updating product with ID {}", productId);
 
@@ -172,6 +551,7 @@ public class ProductService implements IProductService {
             product.setUpdatedDate(LocalDateTime.now());
 
             productRepository.save(product);
+            productListingVersion.increment();
         } else {
             throw new ProductNotFoundException(productId);
         }
@@ -179,13 +559,14 @@ public class ProductService implements IProductService {
 
     /**
      * Delete the product with the given ID.
-     * CacheEvict annotation is used to remove all entries from the cache when a product is deleted.
+     * CacheEvict annotation is used to remove only this product from the cache when it is deleted,
+     * and the version of the product listings is incremented, so the cached listings are not returned anymore.
      * 
      * @param productId the ID of the product to delete
      * @throws ProductNotFoundException If the product does not exist, the exception ProductNotFoundException is thrown.
      * 
      */
-    @CacheEvict(value = "products", allEntries = true)
+    @CacheEvict(value = "products", key = "#productId")
     public void deleteProduct(Long productId) {
         log.info("Deleting product with ID {}", productId);
 
@@ -193,9 +574,91 @@ public class ProductService implements IProductService {
 
         if (existingProduct.isPresent()) {
             productRepository.delete(existingProduct.get());
+            productListingVersion.increment();
         } else {
             throw new ProductNotFoundException(productId);
         }
     }
 
+    /**
+     * Update the price of many products at once, either to a new price or by multiplying it by a factor.
+     * The products are not loaded: the ids are sent in UPDATE ... WHERE id IN (...) statements of
+     * api.products.bulk.ids-per-statement ids each, in one transaction, so the cost grows with the number of
+     * statements instead of the number of products. The ids that do not exist are skipped.
+     * The updated products are removed from the cache once for the whole batch, and the version of the product
+     * listings is incremented once if any product is updated, both after the commit: before it, a concurrent read
+     * could cache the rows of before the change again.
+     *
+     * @param update the ids of the products and their new price or price factor
+     * @throws BulkSizeExceededException If there are more ids than api.products.bulk.max-ids, the exception BulkSizeExceededException is thrown.
+     * @return the number of distinct ids of the request and the number of products updated
+     */
+    @Transactional
+    public BulkChangeResultDTO updateProducts(ProductBulkUpdateDTO update) {
+        long currentUserId = authorizationService.getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        if (update.price() != null) {
+            log.info("Setting the price of {} products in bulk to {}", update.ids().size(), update.price());
+            return changeProducts(update.ids(),
+                    ids -> productRepository.updatePriceByIdIn(ids, update.price(), currentUserId, now));
+        }
+
+        log.info("Multiplying the price of {} products in bulk by {}", update.ids().size(), update.priceFactor());
+        return changeProducts(update.ids(),
+                ids -> productRepository.multiplyPriceByIdIn(ids, update.priceFactor(), currentUserId, now));
+    }
+
+    /**
+     * Delete many products at once.
+     * The products are not loaded: the ids are sent in DELETE ... WHERE id IN (...) statements of
+     * api.products.bulk.ids-per-statement ids each, in one transaction. The ids that do not exist are skipped.
+     * The deleted products are removed from the cache once for the whole batch, and the version of the product
+     * listings is incremented once if any product is deleted, both after the commit: before it, a concurrent read
+     * could cache the rows of before the change again.
+     *
+     * @param productIds the ids of the products to delete
+     * @throws BulkSizeExceededException If there are more ids than api.products.bulk.max-ids, the exception BulkSizeExceededException is thrown.
+     * @return the number of distinct ids of the request and the number of products deleted
+     */
+    @Transactional
+    public BulkChangeResultDTO deleteProducts(List<Long> productIds) {
+        log.info("Deleting {} products in bulk", productIds.size());
+
+        return changeProducts(productIds, productRepository::deleteByIdIn);
+    }
+
+    /**
+     * Run a set-based statement over the given ids, split in lists of idsPerStatement ids.
+     *
+     * @param productIds the ids of the products, the repeated and null ones are ignored
+     * @param statement the statement run with each list of ids, returning the number of products changed
+     * @throws BulkSizeExceededException If there are more ids than api.products.bulk.max-ids.
+     * @return the number of distinct ids and the number of products changed
+     */
+    private BulkChangeResultDTO changeProducts(List<Long> productIds, ToIntFunction<List<Long>> statement) {
+        Set<Long> distinctIds = new LinkedHashSet<>(productIds);
+        distinctIds.remove(null);
+
+        if (distinctIds.size() > bulkMaxIds) {
+            throw new BulkSizeExceededException(distinctIds.size(), bulkMaxIds);
+        }
+
+        List<Long> ids = new ArrayList<>(distinctIds);
+        int affected = 0;
+        for (int from = 0; from < ids.size(); from += idsPerStatement) {
+            affected += statement.applyAsInt(ids.subList(from, Math.min(from + idsPerStatement, ids.size())));
+        }
+
+        if (affected > 0) {
+            Cache products = cacheManager.getCache("products");
+            AfterCommit.run(() -> ids.forEach(products::evict));
+            productListingVersion.increment();
+        }
+
+        log.info("Changed {} of {} products in bulk", affected, ids.size());
+
+        return new BulkChangeResultDTO(ids.size(), affected);
+    }
+
 }
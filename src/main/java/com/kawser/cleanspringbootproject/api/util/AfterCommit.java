@@ -0,0 +1,36 @@
+package com.kawser.cleanspringbootproject.api.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class to run an action once the changes of the current transaction are visible to the other transactions.
+ * The caches are not transactional: invalidated before the commit, they could be filled again with the rows of
+ * before the change by a concurrent read, and keep them until they expire.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * This method will run the action after the commit of the current transaction, or right away if there is no
+     * transaction. The action is not run if the transaction is rolled back.
+     * It must not be called from the afterCommit callback of another action, whose new actions would not be run.
+     * @param action The action to run.
+     */
+    public static void run(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,58 @@
+package com.kawser.cleanspringbootproject.api.util;
+
+import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidCursorException;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Utility class to encode and decode the opaque continuation tokens used by keyset pagination.
+ * A token holds the sort key and the id of the last element of a page, so the next page can be
+ * fetched with a {@code WHERE (key, id) > (?, ?)} seek instead of an OFFSET scan.
+ */
+@Component
+public class CursorUtil {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * The position of the last element returned in a page.
+     * @param key the sort key of the element
+     * @param id the id of the element, used to break ties between equal sort keys
+     */
+    public record Cursor(String key, Long id) {
+    }
+
+    /**
+     * Encodes the given position into an URL-safe opaque token.
+     * @param key the sort key of the last element of the page
+     * @param id the id of the last element of the page
+     * @return the continuation token
+     */
+    public String encode(String key, Long id) {
+        String raw = id.toString() + SEPARATOR + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a continuation token previously generated by {@link #encode(String, Long)}.
+     * @param token the continuation token
+     * @throws InvalidCursorException if the token is malformed
+     * @return the position encoded in the token
+     */
+    public Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separatorIndex = raw.indexOf(SEPARATOR);
+            if (separatorIndex < 1) {
+                throw new InvalidCursorException(token);
+            }
+            Long id = Long.valueOf(raw.substring(0, separatorIndex));
+            return new Cursor(raw.substring(separatorIndex + 1), id);
+        } catch (IllegalArgumentException ex) {
+            // Thrown both by the Base64 decoder and by Long.valueOf (NumberFormatException)
+            throw new InvalidCursorException(token);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.kawser.cleanspringbootproject.api.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+
+import java.io.BufferedWriter;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class writes the products of an export file one record at a time, in UTF-8, in the formats read by the
+ * ProductImportReader, so an exported file can be imported as it is.
+ * The records go through a buffer of a few kilobytes to the output, which is flushed but not closed at the end: the
+ * output belongs to the caller.
+ *
+ * @see ProductImportReader
+ */
+public abstract class ProductExportWriter implements Flushable {
+
+    private final Writer writer;
+
+    ProductExportWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * This method will create the writer of the given format.
+     * @param format The format of the file.
+     * @param output The destination of the file.
+     * @param objectMapper The mapper of the NDJSON products.
+     * @return The writer.
+     */
+    public static ProductExportWriter of(ProductFileFormat format, OutputStream output, ObjectMapper objectMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonWriter(output, objectMapper);
+            case CSV -> new CsvWriter(output);
+        };
+    }
+
+    /**
+     * This method will write a product as the next record of the file.
+     * @param product The product to write.
+     * @throws IOException If the output cannot be written.
+     */
+    public abstract void write(ProductDTO product) throws IOException;
+
+    @Override
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    Writer writer() {
+        return writer;
+    }
+
+    /**
+     * Writes a JSON product per line.
+     */
+    private static class NdjsonWriter extends ProductExportWriter {
+
+        private final ObjectWriter productWriter;
+
+        NdjsonWriter(OutputStream output, ObjectMapper objectMapper) {
+            super(output);
+            this.productWriter = objectMapper.writerFor(ProductDTO.class);
+        }
+
+        @Override
+        public void write(ProductDTO product) throws IOException {
+            writer().write(productWriter.writeValueAsString(product));
+            writer().write('\n');
+        }
+    }
+
+    /**
+     * Writes the products as CSV rows as described by RFC 4180, after a header row with the columns code, name,
+     * price and description. A field with commas, quotes or line breaks is enclosed in double quotes, its quotes
+     * being doubled, and a missing price or description is an empty field.
+     */
+    private static class CsvWriter extends ProductExportWriter {
+
+        private static final String HEADER = "code,name,price,description\r\n";
+
+        private boolean started;
+
+        CsvWriter(OutputStream output) {
+            super(output);
+        }
+
+        @Override
+        public void write(ProductDTO product) throws IOException {
+            if (!started) {
+                writer().write(HEADER);
+                started = true;
+            }
+            writeField(product.code());
+            writer().write(',');
+            writeField(product.name());
+            writer().write(',');
+            writeField(product.price() == null ? null : product.price().toString());
+            writer().write(',');
+            writeField(product.description());
+            writer().write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // An empty export still names its columns
+            if (!started) {
+                writer().write(HEADER);
+                started = true;
+            }
+            super.flush();
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                writer().write(value);
+                return;
+            }
+            writer().write('"');
+            writer().write(value.replace("\"", "\"\""));
+            writer().write('"');
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.kawser.cleanspringbootproject.api.util;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * This class reads the products of an import file one record at a time, so only the current record is held in
+ * memory whatever the size of the file.
+ * A record that cannot be turned into a product (malformed JSON, price that is not a number, missing columns) is
+ * returned with its error, and the reading goes on with the next one. A file that cannot be read any further (a line
+ * or field longer than the limit, e.g. because of an unclosed quote, or a CSV header without the code and name
+ * columns) throws an IOException.
+ */
+public abstract class ProductImportReader implements Closeable {
+
+    /**
+     * Maximum number of characters of an NDJSON line or a CSV field.
+     */
+    static final int MAX_LENGTH = 64 * 1024;
+
+    private final Reader reader;
+
+    private long number;
+
+    ProductImportReader(InputStream input, Charset charset) {
+        this.reader = new BufferedReader(new InputStreamReader(input, charset));
+    }
+
+    /**
+     * A record of the file, with the product read or the reason why it could not be read.
+     *
+     * @param number the number of the record in the file, starting at 1
+     * @param product the product read, null if it could not be read
+     * @param error the reason why the product could not be read, null if it was read
+     */
+    public record ProductRecord(long number, ProductDTO product, String error) {
+    }
+
+    /**
+     * This method will create the reader of the given format.
+     * @param format The format of the file.
+     * @param input The content of the file.
+     * @param charset The charset of the file.
+     * @param objectMapper The mapper of the NDJSON products.
+     * @return The reader.
+     */
+    public static ProductImportReader of(ProductFileFormat format, InputStream input, Charset charset,
+                                         ObjectMapper objectMapper) {
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(input, charset, objectMapper);
+            case CSV -> new CsvReader(input, charset);
+        };
+    }
+
+    /**
+     * This method will read the next record of the file.
+     * @return The record, or null at the end of the file.
+     * @throws IOException If the file cannot be read any further.
+     */
+    public abstract ProductRecord next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    long nextNumber() {
+        return ++number;
+    }
+
+    int read() throws IOException {
+        return reader.read();
+    }
+
+    /**
+     * Reads a JSON product per line, the blank lines are skipped.
+     */
+    private static class NdjsonReader extends ProductImportReader {
+
+        private final ObjectReader productReader;
+
+        private final StringBuilder line = new StringBuilder();
+
+        NdjsonReader(InputStream input, Charset charset, ObjectMapper objectMapper) {
+            super(input, charset);
+            this.productReader = objectMapper.readerFor(ProductDTO.class);
+        }
+
+        @Override
+        public ProductRecord next() throws IOException {
+            String json;
+            do {
+                json = readLine();
+                if (json == null) {
+                    return null;
+                }
+            } while (json.isBlank());
+
+            long number = nextNumber();
+            try {
+                return new ProductRecord(number, productReader.readValue(json), null);
+            } catch (JsonProcessingException ex) {
+                return new ProductRecord(number, null, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        }
+
+        private String readLine() throws IOException {
+            line.setLength(0);
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            while (c != -1 && c != '\n') {
+                if (line.length() == MAX_LENGTH) {
+                    throw new IOException("Line longer than " + MAX_LENGTH + " characters");
+                }
+                line.append((char) c);
+                c = read();
+            }
+            return line.toString();
+        }
+    }
+
+    /**
+     * Reads the products from CSV rows as described by RFC 4180: the fields are separated by commas, and a field
+     * with commas, quotes or line breaks is enclosed in double quotes, its quotes being doubled.
+     * The first row names the columns, in any order and case: code and name are required, price and description
+     * are optional. The blank rows are skipped.
+     */
+    private static class CsvReader extends ProductImportReader {
+
+        private static final List<String> COLUMNS = List.of("code", "name", "price", "description");
+
+        private final StringBuilder field = new StringBuilder();
+
+        /**
+         * Position of each of the COLUMNS in a row, -1 if the file does not have it.
+         */
+        private int[] positions;
+
+        /**
+         * Character read after the end of a quoted field, to be processed by the next iteration.
+         */
+        private int pending = -2;
+
+        CsvReader(InputStream input, Charset charset) {
+            super(input, charset);
+        }
+
+        @Override
+        public ProductRecord next() throws IOException {
+            if (positions == null) {
+                readHeader();
+            }
+
+            List<String> row;
+            do {
+                row = readRow();
+                if (row == null) {
+                    return null;
+                }
+            } while (row.size() == 1 && row.get(0).isBlank());
+
+            long number = nextNumber();
+            int required = Math.max(positions[0], positions[1]) + 1;
+            if (row.size() < required) {
+                return new ProductRecord(number, null,
+                        "Expected at least " + required + " columns but found " + row.size());
+            }
+
+            String price = column(row, 2);
+            Double parsedPrice = null;
+            if (price != null && !price.isBlank()) {
+                try {
+                    parsedPrice = Double.valueOf(price.trim());
+                } catch (NumberFormatException ex) {
+                    return new ProductRecord(number, null, "Price is not a number: " + price);
+                }
+            }
+
+            String description = column(row, 3);
+            return new ProductRecord(number, new ProductDTO(column(row, 0), column(row, 1), parsedPrice,
+                    description == null || description.isEmpty() ? null : description), null);
+        }
+
+        private void readHeader() throws IOException {
+            List<String> header = readRow();
+            positions = new int[COLUMNS.size()];
+            for (int i = 0; i < COLUMNS.size(); i++) {
+                positions[i] = -1;
+            }
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    int column = COLUMNS.indexOf(header.get(i).trim().toLowerCase(Locale.ROOT));
+                    if (column >= 0) {
+                        positions[column] = i;
+                    }
+                }
+            }
+            if (positions[0] < 0 || positions[1] < 0) {
+                throw new IOException("The CSV header must have the columns code and name");
+            }
+        }
+
+        private String column(List<String> row, int column) {
+            int position = positions[column];
+            return position >= 0 && position < row.size() ? row.get(position) : null;
+        }
+
+        /**
+         * Reads the fields of the next row, or returns null at the end of the file.
+         */
+        private List<String> readRow() throws IOException {
+            int c = nextChar();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> row = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unclosed quote at the end of the file");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            append('"');
+                        } else {
+                            quoted = false;
+                            pending = next;
+                        }
+                    } else {
+                        append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    row.add(field.toString());
+                    return row;
+                } else if (c != '\r') {
+                    append((char) c);
+                }
+                c = nextChar();
+            }
+        }
+
+        private int nextChar() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return read();
+        }
+
+        private void append(char c) throws IOException {
+            if (field.length() == MAX_LENGTH) {
+                throw new IOException("Field longer than " + MAX_LENGTH + " characters");
+            }
+            field.append(c);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kawser.cleanspringbootproject.api.util;
+
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class holds the version of the cached product listings.
+ * The version is part of the key of every cached listing, so incrementing it makes all the listings cached before
+ * unreachable without clearing the cache: the old entries are removed by the size and expiration bounds of the cache.
+ */
+@Component
+public class ProductListingVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * This method will return the current version of the product listings.
+     * @return the current version
+     */
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * This method will increment the version of the product listings.
+     * It must be called whenever a product is created, updated or deleted. Inside a transaction, the version is
+     * incremented after the commit: incremented before, a listing read by a concurrent request from the rows of
+     * before the change would be cached under the new version.
+     */
+    public void increment() {
+        AfterCommit.run(version::incrementAndGet);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 
+import java.time.Duration;
 import java.util.Properties;
 
 /**
@@ -22,14 +23,36 @@ public class EmailConfigurations {
     private String mailUsername;
     @Value("${spring.mail.password}")
     private String mailPassword;
+    @Value("${spring.mail.properties.mail.debug:false}")
+    private boolean mailDebug;
+
+    /**
+     * Whether the SMTP connections are kept open and reused between sends, fetched from application.properties.
+     */
+    @Value("${auth.email.smtp.pool.enabled}")
+    private boolean poolEnabled;
+    @Value("${auth.email.smtp.pool.size}")
+    private int poolSize;
+    @Value("${auth.email.smtp.pool.idle-timeout}")
+    private Duration poolIdleTimeout;
+
+    /**
+     * Timeout to connect, read and write on the SMTP connection, so a stuck server does not block a sender forever.
+     */
+    @Value("${auth.email.smtp.timeout}")
+    private Duration timeout;
 
     /**
      * Configures the JavaMailSender with the properties fetched from the application.properties.
+     * When the pool is enabled, the sender keeps up to pool size authenticated connections open between sends.
      * @return JavaMailSender configured
+     * @see PooledJavaMailSender
      */
     @Bean
     public JavaMailSender getJavaMailSender() {
-        JavaMailSenderImpl javaMailSender = new JavaMailSenderImpl();
+        JavaMailSenderImpl javaMailSender = poolEnabled
+                ? new PooledJavaMailSender(poolSize, poolIdleTimeout)
+                : new JavaMailSenderImpl();
         javaMailSender.setHost(mailHost);
         javaMailSender.setPort(Integer.parseInt(mailPort));
         javaMailSender.setUsername(mailUsername);
@@ -39,7 +62,10 @@ public class EmailConfigurations {
         props.put("mail.transport.protocol", "smtp");
         props.put("mail.smtp.auth", "true");
         props.put("mail.smtp.starttls.enable", "true");
-        props.put("mail.debug", "true");
+        props.put("mail.debug", String.valueOf(mailDebug));
+        props.put("mail.smtp.connectiontimeout", String.valueOf(timeout.toMillis()));
+        props.put("mail.smtp.timeout", String.valueOf(timeout.toMillis()));
+        props.put("mail.smtp.writetimeout", String.valueOf(timeout.toMillis()));
         
         return javaMailSender;
     }
@@ -0,0 +1,161 @@
+package com.kawser.cleanspringbootproject.auth.config.email;
+
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+
+/**
+ * This class is a JavaMailSender that keeps its authenticated SMTP connections open between sends.
+ * The JavaMailSenderImpl opens a new connection (TCP, STARTTLS and AUTH) for every call to send and closes it after,
+ * while this sender borrows a connection from a pool of at most poolSize connections and returns it after the send.
+ * A connection left idle longer than the idle timeout is closed instead of being reused, as the servers drop them.
+ * All the messages given to one call to send are sent over the same connection.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private static final String HEADER_MESSAGE_ID = "Message-ID";
+
+    private final Duration idleTimeout;
+
+    /**
+     * Limits the number of connections open at the same time, a send waits for a connection when all are in use.
+     */
+    private final Semaphore connections;
+
+    /**
+     * Idle connections, the most recently used first.
+     */
+    private final BlockingDeque<IdleTransport> idleTransports = new LinkedBlockingDeque<>();
+
+    private record IdleTransport(Transport transport, long idleSince) {
+    }
+
+    public PooledJavaMailSender(int poolSize, Duration idleTimeout) {
+        this.connections = new Semaphore(poolSize, true);
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Sends the messages over a pooled connection, reconnecting only if the connection is lost during the send.
+     * The failed messages are reported as the JavaMailSenderImpl does, in a MailSendException.
+     */
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, @Nullable Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+
+        connections.acquireUninterruptibly();
+        Transport transport = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+
+                if (transport == null || (!failedMessages.isEmpty() && !transport.isConnected())) {
+                    closeQuietly(transport);
+                    try {
+                        transport = borrowTransport();
+                    } catch (AuthenticationFailedException ex) {
+                        throw new MailAuthenticationException(ex);
+                    } catch (Exception ex) {
+                        // All remaining messages failed
+                        for (int j = i; j < mimeMessages.length; j++) {
+                            failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], ex);
+                        }
+                        throw new MailSendException("Mail server connection failed", ex, failedMessages);
+                    }
+                }
+
+                MimeMessage mimeMessage = mimeMessages[i];
+                try {
+                    if (mimeMessage.getSentDate() == null) {
+                        mimeMessage.setSentDate(new Date());
+                    }
+                    String messageId = mimeMessage.getMessageID();
+                    mimeMessage.saveChanges();
+                    if (messageId != null) {
+                        // Preserve the message id set explicitly
+                        mimeMessage.setHeader(HEADER_MESSAGE_ID, messageId);
+                    }
+                    Address[] addresses = mimeMessage.getAllRecipients();
+                    transport.sendMessage(mimeMessage, addresses != null ? addresses : new Address[0]);
+                } catch (Exception ex) {
+                    failedMessages.put(originalMessages != null ? originalMessages[i] : mimeMessage, ex);
+                }
+            }
+        } finally {
+            returnTransport(transport, failedMessages.isEmpty());
+            connections.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Returns the most recently used idle connection that is still open, or opens a new one.
+     * The idle connections older than the idle timeout are closed.
+     */
+    private Transport borrowTransport() throws MessagingException {
+        IdleTransport idle;
+        while ((idle = idleTransports.pollFirst()) != null) {
+            if (System.nanoTime() - idle.idleSince() <= idleTimeout.toNanos() && idle.transport().isConnected()) {
+                return idle.transport();
+            }
+            closeQuietly(idle.transport());
+        }
+        return connectTransport();
+    }
+
+    /**
+     * Puts the connection back in the pool. After a failure, it is only kept if it is still open.
+     */
+    private void returnTransport(@Nullable Transport transport, boolean succeeded) {
+        if (transport == null) {
+            return;
+        }
+        if (succeeded || transport.isConnected()) {
+            idleTransports.offerFirst(new IdleTransport(transport, System.nanoTime()));
+        } else {
+            closeQuietly(transport);
+        }
+    }
+
+    private void closeQuietly(@Nullable Transport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.close();
+        } catch (Exception ex) {
+            log.debug("Error while closing the SMTP connection", ex);
+        }
+    }
+
+    /**
+     * Closes the idle connections when the application stops.
+     */
+    @Override
+    public void destroy() {
+        IdleTransport idle;
+        while ((idle = idleTransports.pollFirst()) != null) {
+            closeQuietly(idle.transport());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is a PasswordEncoder that hashes and matches the passwords on a dedicated, bounded pool of threads.
+ * Hashing is CPU-bound and slow on purpose, so a storm of logins or signups running it on the request threads takes
+ * all the CPU and every request thread, and starves the cheap requests. Here at most poolSize hashes run at the same
+ * time, at most queueCapacity wait for a thread, and any other one is rejected right away with a
+ * PasswordHashingRejectedException, answered with status 503.
+ * The time waiting in the queue and the time hashing are published as the auth.password.hashing.queue and
+ * auth.password.hashing.execution timers, tagged by operation (encode or matches).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final String ENCODE = "encode";
+    private static final String MATCHES = "matches";
+
+    private final PasswordEncoder delegate;
+
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeQueueTimer;
+    private final Timer encodeExecutionTimer;
+    private final Timer matchesQueueTimer;
+    private final Timer matchesExecutionTimer;
+    private final Counter rejectedCounter;
+
+    /**
+     * @param delegate Encoder that hashes and matches the passwords
+     * @param poolSize Number of passwords hashed at the same time, usually the number of processors
+     * @param queueCapacity Number of passwords waiting to be hashed before rejecting the next ones, 0 to reject any
+     *                      password that finds every thread busy
+     * @throws IllegalArgumentException if the queue capacity is negative
+     * @param meterRegistry Registry of the metrics of the pool
+     */
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                queue(queueCapacity), new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeQueueTimer = timer("auth.password.hashing.queue", ENCODE, meterRegistry);
+        this.encodeExecutionTimer = timer("auth.password.hashing.execution", ENCODE, meterRegistry);
+        this.matchesQueueTimer = timer("auth.password.hashing.queue", MATCHES, meterRegistry);
+        this.matchesExecutionTimer = timer("auth.password.hashing.execution", MATCHES, meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.password.hashing.rejected")
+                .description("Passwords not hashed because the hashing queue was full")
+                .register(meterRegistry);
+        new ExecutorServiceMetrics(executor, "password-hashing", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> delegate.encode(rawPassword), encodeQueueTimer, encodeExecutionTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> delegate.matches(rawPassword, encodedPassword), matchesQueueTimer, matchesExecutionTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Runs the task on the pool and waits for its result.
+     * @throws PasswordHashingRejectedException if the queue is full or the thread is interrupted while waiting
+     */
+    private <T> T execute(Callable<T> task, Timer queueTimer, Timer executionTimer) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return executionTimer.recordCallable(task);
+            });
+        } catch (RejectedExecutionException ex) {
+            rejectedCounter.increment();
+            throw new PasswordHashingRejectedException(ex);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException(ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Creates the queue of the passwords waiting for a thread, which hands them straight to a free thread when none
+     * may wait.
+     */
+    private static BlockingQueue<Runnable> queue(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The password hashing queue capacity must be 0 or more, not " + capacity);
+        }
+        return capacity == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(capacity);
+    }
+
+    private static Timer timer(String name, String operation, MeterRegistry meterRegistry) {
+        return Timer.builder(name)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stops the threads of the pool when the application is shut down.
+     */
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
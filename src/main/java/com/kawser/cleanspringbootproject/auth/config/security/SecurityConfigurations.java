@@ -1,6 +1,8 @@
 package com.kawser.cleanspringbootproject.auth.config.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,11 +12,13 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 /**
  * This class is responsible for configuring the security rules for the application and the JWT filter.
  */
@@ -22,9 +26,30 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 @EnableWebSecurity
 public class SecurityConfigurations {
 
+    private static final String BCRYPT = "bcrypt";
+
     @Autowired
     private SecurityFilter securityFilter;
 
+    /**
+     * Number of passwords hashed at the same time, fetched from application.properties.
+     * 0 uses the number of processors, as hashing is CPU-bound.
+     */
+    @Value("${auth.security.password-hashing.pool-size}")
+    private int passwordHashingPoolSize;
+
+    /**
+     * Number of passwords waiting to be hashed before the next ones are rejected, fetched from application.properties.
+     */
+    @Value("${auth.security.password-hashing.queue-capacity}")
+    private int passwordHashingQueueCapacity;
+
+    /**
+     * Work factor of the BCrypt hashes, fetched from application.properties.
+     */
+    @Value("${auth.security.password-hashing.bcrypt-strength}")
+    private int bcryptStrength;
+
     /**
      * This method creates a SecurityFilterChain bean.
      * @param httpSecurity
@@ -49,6 +74,14 @@ public class SecurityConfigurations {
                         .requestMatchers(HttpMethod.POST, "/auth/resend-verification").permitAll()
                         .requestMatchers(HttpMethod.POST, "/password/request-reset").permitAll()
                         .requestMatchers(HttpMethod.POST, "/password/reset").permitAll()
+                        // The health of the application is public, the other actuator endpoints show the statements,
+                        // metrics and timings of the application and are only visible to the users with the ADMIN role
+                        .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
+                        // The import jobs are only visible to the users with the ADMIN role, who run them,
+                        // and the export of the whole catalog, which holds a database connection while it is
+                        // downloaded, is kept to them too
+                        .requestMatchers(HttpMethod.GET,  "/products/import/**", "/products/export").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET,  "/products/**").permitAll()
 
                         // Only allow users with the ADMIN role to POST, PUT, DELETE to /products/**
@@ -79,11 +112,22 @@ public class SecurityConfigurations {
 
     /**
      * This method creates a PasswordEncoder bean.
+     * The passwords are hashed with BCrypt on a bounded pool of threads, off the request threads.
+     * New hashes are prefixed with the id of their encoder ({bcrypt}), and the hashes stored without a prefix are
+     * matched as BCrypt hashes. A hash without the prefix or with another work factor is upgraded on login.
+     * @param meterRegistry Registry of the metrics of the pool
      * @return PasswordEncoder
+     * @see BoundedPasswordEncoder
+     * @see WorkFactorBCryptPasswordEncoder
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        PasswordEncoder bcrypt = new WorkFactorBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        int poolSize = passwordHashingPoolSize > 0 ? passwordHashingPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, poolSize, passwordHashingQueueCapacity, meterRegistry);
     }
 
 }
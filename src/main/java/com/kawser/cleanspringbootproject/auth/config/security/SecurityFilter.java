@@ -1,14 +1,17 @@
 package com.kawser.cleanspringbootproject.auth.config.security;
 
-import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
+import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.services.IAuthorizationService;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -24,18 +27,27 @@ public class SecurityFilter extends OncePerRequestFilter {
     private TokenService tokenService;
 
     @Autowired
-    private UserRepository userRepository;
+    private IAuthorizationService authorizationService;
+
+    /**
+     * Whether the user of each token must be checked against the database, fetched from application.properties.
+     * When enabled, deleted or disabled users and role changes are detected within the expiration time of the user cache.
+     */
+    @Value("${auth.security.token.revocation-check}")
+    private boolean revocationCheck;
 
     /**
      * This method is called for each request and is responsible for applying the security rules.
-     * The token is recovered from the request and validaded using the TokenService, then the user is recovered from the database and set in the SecurityContext.
+     * The token is recovered from the request and validaded using the TokenService, then the user is rebuilt from the claims of the token and set in the SecurityContext.
+     * No database query is made: the id, role and enabled flag of the user are carried by the token itself.
+     * If the revocation check is enabled, the user is instead reloaded through the cached AuthorizationService.
      * @param request Request to be filtered
      * @param response Response to be filtered
      * @param filterChain Filter chain to be applied
      * @throws ServletException Exception thrown in case of error
      * @throws IOException Exception thrown in case of error
      * @see TokenService
-     * @see UserRepository
+     * @see AuthorizationService
      */
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -43,17 +55,35 @@ public class SecurityFilter extends OncePerRequestFilter {
         var token = recoverToken(request);
 
         if (token != null) {
-            var login = tokenService.validateToken(token);
+            User user = tokenService.recoverUser(token);
 
-            UserDetails user = userRepository.findByUsername(login);
+            if (user != null && revocationCheck) {
+                user = reloadUser(user);
+            }
 
-            // Create an authentication token and set it in the SecurityContext
-            var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
-            SecurityContextHolder.getContext().setAuthentication(authentication);
+            // Create an authentication token and set it in the SecurityContext, unless the token is invalid
+            if (user != null && user.isEnabled()) {
+                var authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+            }
         }
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Method responsible for reloading the user of a token through the cached AuthorizationService.
+     * @param tokenUser User rebuilt from the claims of the token
+     * @return User currently stored or null if it was deleted or replaced by another user with the same username
+     */
+    private User reloadUser(User tokenUser) {
+        try {
+            User user = (User) authorizationService.loadUserByUsername(tokenUser.getUsername());
+            return user.getId().equals(tokenUser.getId()) ? user : null;
+        } catch (UsernameNotFoundException ex) {
+            return null;
+        }
+    }
+
     /**
      * Method responsible for recovering the token from the request.
      * @param request Request to recover the token
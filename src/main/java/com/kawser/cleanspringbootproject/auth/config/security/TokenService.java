@@ -1,10 +1,13 @@
 package com.kawser.cleanspringbootproject.auth.config.security;
 
 import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.models.UserRole;
 import com.auth0.jwt.JWT;
 import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.JWTCreationException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -19,6 +22,13 @@ import java.time.Instant;
 @Slf4j
 public class TokenService {
 
+    /**
+     * Names of the claims that carry the user data needed to rebuild the principal without querying the database.
+     */
+    private static final String ID_CLAIM = "id";
+    private static final String ROLE_CLAIM = "role";
+    private static final String ENABLED_CLAIM = "enabled";
+
     /**
      * Secret used to generate the token, fetched from application.properties.
      */
@@ -31,20 +41,45 @@ public class TokenService {
     @Value("${auth.security.token.expiration-time}")
     private long EXPIRATION_TIME;
 
+    /**
+     * Algorithm used to sign and verify the tokens, built once from the secret.
+     */
+    private Algorithm algorithm;
+
+    /**
+     * Verifier of the tokens, built once and shared by all the requests since it is thread-safe.
+     */
+    private JWTVerifier verifier;
+
+    /**
+     * Builds the signing algorithm and the verifier once the secret is injected,
+     * so they are not rebuilt for every token generated or validated.
+     */
+    @PostConstruct
+    public void init() {
+        algorithm = Algorithm.HMAC256(secret);
+        verifier = JWT.require(algorithm)
+                .withIssuer("auth-service")
+                .build();
+    }
+
     /**
      * Generates a token for the given user with the expiration time defined in the application.properties.
+     * The id, role and enabled flag of the user are embedded as claims, so the principal can be rebuilt from the token.
      * @param user User to generate the token
      * @throws RuntimeException Exception thrown in case of error while generating the token
      * @return Token generated
      */
     public String generateToken(User user) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
             var now = Instant.now();
             
             String token = JWT.create()
                     .withIssuer("auth-service")
                     .withSubject(user.getUsername())
+                    .withClaim(ID_CLAIM, user.getId())
+                    .withClaim(ROLE_CLAIM, user.getRole().name())
+                    .withClaim(ENABLED_CLAIM, user.isEnabled())
                     .withExpiresAt(now.plusSeconds(EXPIRATION_TIME))
                     .sign(algorithm);
             return token;
@@ -62,11 +97,6 @@ public class TokenService {
      */
     public String validateToken(String token) {
         try {
-            Algorithm algorithm = Algorithm.HMAC256(secret);
-
-            var verifier = JWT.require(algorithm)
-                    .withIssuer("auth-service")
-                    .build();
             var decodedJWT = verifier.verify(token);
             return decodedJWT.getSubject();
         } catch (JWTVerificationException exception) {
@@ -74,5 +104,32 @@ public class TokenService {
         }
     }
 
-}
+    /**
+     * Validates the token and rebuilds the user it was issued to from its claims, without querying the database.
+     * The returned user is a lightweight principal: it only holds the id, username, role and enabled flag.
+     * @param token Token to validate
+     * @return User rebuilt from the token or null if the token is invalid, expired or lacks the user claims
+     */
+    public User recoverUser(String token) {
+        try {
+            var decodedJWT = verifier.verify(token);
+
+            Long id = decodedJWT.getClaim(ID_CLAIM).asLong();
+            String role = decodedJWT.getClaim(ROLE_CLAIM).asString();
+            Boolean enabled = decodedJWT.getClaim(ENABLED_CLAIM).asBoolean();
+            if (id == null || role == null || enabled == null) {
+                return null;
+            }
 
+            return User.builder()
+                    .id(id)
+                    .username(decodedJWT.getSubject())
+                    .role(UserRole.valueOf(role))
+                    .enabled(enabled)
+                    .build();
+        } catch (JWTVerificationException | IllegalArgumentException exception) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * This class is a BCryptPasswordEncoder that asks to rehash any password hashed with another work factor.
+ * The BCryptPasswordEncoder only upgrades the hashes of a lower work factor, while this encoder also downgrades the
+ * hashes of a higher one, so lowering the work factor of a deployment takes effect as the users log in.
+ */
+public class WorkFactorBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT_PATTERN = Pattern.compile("\\A\\$2[abyx]?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    /**
+     * @param strength Work factor of the hashes, between 4 and 31, each step doubling the time to hash a password
+     */
+    public WorkFactorBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * This method will tell whether the password must be hashed again with the work factor of this encoder.
+     * @param encodedPassword Password hashed with BCrypt
+     * @return true if the hash was made with another work factor
+     */
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_PATTERN.matcher(encodedPassword);
+        return matcher.matches() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+}
@@ -0,0 +1,95 @@
+package com.kawser.cleanspringbootproject.auth.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting in the outbox to be sent to the user.
+ * It is saved in the same transaction as the user update that requires it, so no email is lost or sent for a change
+ * that was rolled back, and it is sent later by the dispatcher with retries.
+ *
+ * @see EmailType
+ * @see EmailStatus
+ *
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "email_outbox")
+@Builder
+public class EmailOutbox {
+
+    /**
+     * The id of the email. It is generated automatically by the database.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * The type of the email, which defines its subject and body.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 30)
+    private EmailType type;
+
+    /**
+     * The email address of the recipient.
+     */
+    @Column(nullable = false)
+    private String recipient;
+
+    /**
+     * The one-time password sent in the email. It is cleared once the email is sent or failed, so the outbox does
+     * not keep the passwords it no longer needs.
+     */
+    private String token;
+
+    /**
+     * The locale of the user as a language tag (e.g. es-AR), which chooses the template of the email.
+     */
+    @Column(length = 35)
+    private String locale;
+
+    /**
+     * The delivery status of the email.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private EmailStatus status;
+
+    /**
+     * The number of attempts made to send the email.
+     */
+    @Column(nullable = false)
+    private int attempts;
+
+    /**
+     * The time from which the email can be sent. It is postponed while the email is being sent and after a failure.
+     */
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /**
+     * The time the email was written in the outbox.
+     */
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    /**
+     * The time the email was sent.
+     */
+    private LocalDateTime sentAt;
+
+    /**
+     * The error of the last failed attempt.
+     */
+    @Column(length = 500)
+    private String lastError;
+}
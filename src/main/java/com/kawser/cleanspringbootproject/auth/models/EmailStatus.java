@@ -0,0 +1,12 @@
+package com.kawser.cleanspringbootproject.auth.models;
+
+/**
+ * Enum to represent the delivery status of an email of the outbox.
+ * Contains the status: pending (waiting for its first or next attempt), sent and failed (no attempt left).
+ */
+public enum EmailStatus {
+
+    PENDING,
+    SENT,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.kawser.cleanspringbootproject.auth.models;
+
+/**
+ * Enum to represent the type of an email sent to the user.
+ * Contains the types: verify account and recover password.
+ */
+public enum EmailType {
+
+    VERIFY_ACCOUNT,
+    RECOVER_PASSWORD
+}
@@ -0,0 +1,49 @@
+package com.kawser.cleanspringbootproject.auth.repositories;
+
+import com.kawser.cleanspringbootproject.auth.models.EmailOutbox;
+import com.kawser.cleanspringbootproject.auth.models.EmailStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * This interface is a repository for the EmailOutbox entity.
+ */
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Find the emails with the given status that are due, oldest first.
+     * The rows are locked until the end of the transaction and the rows already locked by another instance are skipped
+     * (on the databases that support it), so two instances never claim the same email.
+     *
+     * @param status The status of the emails.
+     * @param now The current time.
+     * @param limit The maximum number of emails.
+     * @return The emails due.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<EmailOutbox> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(EmailStatus status, LocalDateTime now, Limit limit);
+
+    /**
+     * Delete the emails with one of the given statuses written before the given time, in a single statement.
+     *
+     * @param statuses The statuses of the emails.
+     * @param before The time before which the emails were written.
+     * @return The number of emails deleted.
+     */
+    @Modifying
+    @Query("DELETE FROM EmailOutbox e WHERE e.status IN :statuses AND e.createdAt < :before")
+    int deleteByStatusInAndCreatedAtBefore(@Param("statuses") Collection<EmailStatus> statuses,
+                                           @Param("before") LocalDateTime before);
+}
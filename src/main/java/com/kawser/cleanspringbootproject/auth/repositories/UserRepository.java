@@ -2,7 +2,10 @@ package com.kawser.cleanspringbootproject.auth.repositories;
 
 import com.kawser.cleanspringbootproject.auth.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
@@ -40,4 +43,17 @@ public interface UserRepository extends JpaRepository<User, Long>{
      * @param email The email of the user.
      */
     boolean existsByEmail(String email);
+
+    /**
+     * Replace the password of a user, only if it was not changed since it was read.
+     * 
+     * @param username The username of the user.
+     * @param oldPassword The hashed password read from the user.
+     * @param newPassword The new hashed password.
+     * @return The number of users updated, 0 if the password was changed meanwhile.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.username = :username AND u.password = :oldPassword")
+    int updatePassword(String username, String oldPassword, String newPassword);
 }
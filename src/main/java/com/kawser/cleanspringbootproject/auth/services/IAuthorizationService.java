@@ -5,5 +5,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 public interface IAuthorizationService {
 
     UserDetails loadUserByUsername(String username);
+    void evictUser(String username);
     long getCurrentUserId();
 }
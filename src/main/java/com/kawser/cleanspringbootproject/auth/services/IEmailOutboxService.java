@@ -0,0 +1,12 @@
+package com.kawser.cleanspringbootproject.auth.services;
+
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+
+public interface IEmailOutboxService {
+
+    void enqueue(EmailType type, String recipient, String token);
+
+    void dispatchPendingEmails();
+
+    void purgeFinishedEmails();
+}
@@ -1,6 +1,7 @@
 package com.kawser.cleanspringbootproject.auth.services.impl;
 
 import com.kawser.cleanspringbootproject.auth.config.security.TokenService;
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
 import com.kawser.cleanspringbootproject.auth.models.OneTimePassword;
 import com.kawser.cleanspringbootproject.auth.models.User;
 import com.kawser.cleanspringbootproject.auth.models.UserRole;
@@ -9,12 +10,13 @@ import com.kawser.cleanspringbootproject.auth.models.dto.authentication.LoginRes
 import com.kawser.cleanspringbootproject.auth.models.dto.authentication.SignupDTO;
 import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
 import com.kawser.cleanspringbootproject.auth.services.IAuthenticationService;
-import com.kawser.cleanspringbootproject.auth.util.EmailUtil;
+import com.kawser.cleanspringbootproject.auth.services.IAuthorizationService;
+import com.kawser.cleanspringbootproject.auth.services.IEmailOutboxService;
 import com.kawser.cleanspringbootproject.auth.util.OtpUtil;
 import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.InvalidCredentialsException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.InvalidOtpException;
+import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.PasswordHashingRejectedException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.user.*;
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -22,8 +24,10 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -44,11 +48,20 @@ public class AuthenticationService implements IAuthenticationService {
     private UserRepository userRepository;
 
     @Autowired
-    private EmailUtil emailUtil;
+    private IAuthorizationService authorizationService;
+
+    @Autowired
+    private IEmailOutboxService emailOutboxService;
 
     @Autowired
     private OtpUtil otpUtil;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     /**
      * This method will authenticate the user and generate a token for it.
      * Throws an exception if the user is disabled or the credentials are invalid. 
@@ -56,6 +69,7 @@ public class AuthenticationService implements IAuthenticationService {
      * @param data Data to login.
      * @throws UserNotEnabledException if the user is disabled.
      * @throws InvalidCredentialsException if the credentials are invalid.
+     * @throws PasswordHashingRejectedException if too many passwords are already waiting to be checked.
      * @return Token generated for the user.
      * 
      */
@@ -77,6 +91,8 @@ public class AuthenticationService implements IAuthenticationService {
             throw new UserNotEnabledException();
         } catch (AuthenticationException ex) {
             throw new InvalidCredentialsException();
+        } catch (PasswordHashingRejectedException ex) {
+            throw ex;
         } catch (Exception ex) {
             log.error("Error occurred during login");
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error occurred during login");
@@ -86,10 +102,13 @@ public class AuthenticationService implements IAuthenticationService {
     /**
      * This method will register a new user in the system.
      * Throws an exception if the username or email already exists.
+     * The password is hashed before the transaction, so no database connection is held while it is hashed; the
+     * verification email is written in the outbox in the same transaction as the user, and sent later.
      * 
      * @param data Data to register.
      * @throws UsernameAlreadyExistsException if the username already exists.
      * @throws EmailAlreadyExistsException if the email already exists.
+     * @throws PasswordHashingRejectedException if too many passwords are already waiting to be hashed.
      * 
      */
     public void signup(SignupDTO data) {
@@ -103,34 +122,31 @@ public class AuthenticationService implements IAuthenticationService {
             throw new EmailAlreadyExistsException(data.email());
         }
 
-        OneTimePassword oneTimePassword = otpUtil.generateOtp();
-        String encryptedPassword = new BCryptPasswordEncoder().encode(data.password());
+        String encryptedPassword = passwordEncoder.encode(data.password());
 
-        User user = User.builder()
-                .username(data.username())
-                .password(encryptedPassword)
-                .email(data.email())
-                .mobilePhone(data.mobilePhone())
-                .role(UserRole.USER)
-                .otp(oneTimePassword)
-                .build();
+        transactionTemplate.executeWithoutResult(status -> {
+            OneTimePassword oneTimePassword = otpUtil.generateOtp();
 
-        log.info("New user created: {}", data.username());
+            User user = User.builder()
+                    .username(data.username())
+                    .password(encryptedPassword)
+                    .email(data.email())
+                    .mobilePhone(data.mobilePhone())
+                    .role(UserRole.USER)
+                    .otp(oneTimePassword)
+                    .build();
 
-        userRepository.save(user);
+            log.info("New user created: {}", data.username());
 
-        try {
-            emailUtil.sendOtpEmail(data.email(), oneTimePassword.otp());
-        } catch (MessagingException ex) {
-            log.error("Error occurred while sending email to verify account");
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error occurred while sending email to verify account");
-        }
+            userRepository.save(user);
+            emailOutboxService.enqueue(EmailType.VERIFY_ACCOUNT, data.email(), oneTimePassword.otp());
+        });
     }
 
     /**
      * This method will verify the account of the user.
      * Throws an exception if the user is already verified, the OTP is invalid or expired or the user is not found.
+     * The user is removed from the user cache, so it is seen as enabled right away.
      * @param email The email of the user.
      * @param otp The OTP to verify the account.
      * @throws UserAlreadyVerifiedException if the user is already verified.
@@ -151,6 +167,7 @@ public class AuthenticationService implements IAuthenticationService {
                         user.setEnabled(true);
                         user.setOtp(null); 
                         userRepository.save(user);
+                        authorizationService.evictUser(user.getUsername());
                         log.info("User account verified");
                     } else {
                         throw new InvalidOtpException(new Throwable("Invalid or expired OTP"));
@@ -163,11 +180,13 @@ public class AuthenticationService implements IAuthenticationService {
     /**
      * This method will resend the verification email to the user.
      * Throws an exception if the user is already verified or the user is not found.
+     * The verification email is written in the outbox in the same transaction as the new OTP, and sent later.
      * @param email The email of the user.
      * @throws UserAlreadyVerifiedException if the user is already verified.
      * @throws UserNotFoundException if the user is not found.
      * 
      */
+    @Transactional
     public void resendVerification(String email) {
         log.info("Received email to resend verification email");
 
@@ -179,15 +198,9 @@ public class AuthenticationService implements IAuthenticationService {
                     }
 
                     OneTimePassword oneTimePassword = otpUtil.generateOtp();
-                    try {
-                        emailUtil.sendOtpEmail(email, oneTimePassword.otp());
-                    } catch (MessagingException ex) {
-                        log.error("Error occurred while sending email to verify account");
-                        throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                                "Error occurred while sending email to verify account");
-                    }
                     user.setOtp(oneTimePassword); 
                     userRepository.save(user);
+                    emailOutboxService.enqueue(EmailType.VERIFY_ACCOUNT, email, oneTimePassword.otp());
                 }, () -> {
                     throw new UserNotFoundException(email);
                 });
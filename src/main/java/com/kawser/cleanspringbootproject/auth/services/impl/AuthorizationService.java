@@ -1,47 +1,161 @@
 package com.kawser.cleanspringbootproject.auth.services.impl;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.kawser.cleanspringbootproject.auth.models.User;
 import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
 import com.kawser.cleanspringbootproject.auth.services.IAuthorizationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
 /**
  * This service is responsible for handling the authorization operations.
  */
 @Service
-public class AuthorizationService implements IAuthorizationService, UserDetailsService {
+@Slf4j
+public class AuthorizationService implements IAuthorizationService, UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Caffeine specification of the user cache, fetched from application.properties.
+     * Its expireAfterWrite bounds how long a revoked or changed user can still be seen as it was.
+     */
+    @Value("${cache.users.spec}")
+    private String userCacheSpec;
+
+    /**
+     * Whether the requests run on virtual threads, fetched from application.properties.
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Users loaded by username, bounded in size, refreshed in the background and expired after a short time.
+     * The cache is asynchronous so that, with virtual threads, a user is loaded outside of the lock of the map: a load
+     * inside it, as done by a synchronous cache, would pin the carrier of a virtual thread for the whole database query.
+     */
+    private AsyncLoadingCache<String, UserDetails> userCache;
+
+    /**
+     * Builds the user cache and exposes its hit, miss and eviction counts as the "users" cache metrics.
+     * With virtual threads, each load and refresh runs on a new virtual thread instead of the common pool.
+     * With platform threads, a load runs on the calling thread, which waits for it anyway, as with a synchronous
+     * cache: run on the few threads of the common pool, the logins would queue behind each other. The refreshes
+     * still run on the common pool, in the background.
+     */
+    @PostConstruct
+    public void init() {
+        Caffeine<Object, Object> builder = Caffeine.from(userCacheSpec).recordStats();
+        if (virtualThreads) {
+            ThreadFactory threadFactory = Thread.ofVirtual().name("user-cache-", 0).factory();
+            builder.executor(task -> threadFactory.newThread(task).start());
+        }
+        userCache = builder.buildAsync(new CacheLoader<>() {
+            @Override
+            public UserDetails load(String username) {
+                return userRepository.findByUsername(username);
+            }
+
+            @Override
+            public CompletableFuture<? extends UserDetails> asyncLoad(String username, Executor executor) throws Exception {
+                if (virtualThreads) {
+                    return CacheLoader.super.asyncLoad(username, executor);
+                }
+                return CompletableFuture.completedFuture(load(username));
+            }
+        });
+        CaffeineCacheMetrics.monitor(meterRegistry, userCache.synchronous(), "users");
+    }
+
     /**
      * This method will load the user by its username.
+     * The user is read from the cache, only a miss or an expired entry queries the database.
+     * An entry due for refresh is still returned while it is reloaded in the background.
      * @param username Username to load the user
      * @throws UsernameNotFoundException if the user is not found
      * @return UserDetails object with the user information
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        UserDetails user = userRepository.findByUsername(username);
+        CompletableFuture<UserDetails> load = userCache.get(username);
+        UserDetails user;
+        try {
+            user = load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw ex;
+        }
         if (user == null) {
+            // The cache drops a load without a user once it completes, remove it now so the next call queries again
+            userCache.asMap().remove(username, load);
             throw new UsernameNotFoundException("User not found");
         }
         return user;
     }
 
+    /**
+     * This method will replace the password of the user with the same password hashed again.
+     * It is called on login when the stored hash was not made with the current encoder or work factor.
+     * The password is replaced only if it was not changed since the user was loaded, so a password reset made
+     * meanwhile is not overwritten.
+     * @param user User that logged in
+     * @param newPassword Password of the user hashed with the current encoder
+     * @return the user
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword) > 0) {
+            log.info("Password of user {} rehashed", user.getUsername());
+            evictUser(user.getUsername());
+        }
+        return user;
+    }
+
+    /**
+     * This method will remove the user from the cache, so the next load reads it from the database.
+     * It must be called whenever the user is changed.
+     * @param username Username of the user to remove
+     */
+    public void evictUser(String username) {
+        userCache.synchronous().invalidate(username);
+    }
+
+    /**
+     * This method will return the id of the authenticated user.
+     * The principal is the user rebuilt from the token by the SecurityFilter, so no database query is made.
+     * @return the id of the authenticated user or 0 if there is no authenticated user
+     */
     public long getCurrentUserId() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication != null && authentication.isAuthenticated()) {
-            User userDetails = (User) authentication.getPrincipal();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof User userDetails) {
             return userDetails.getId();
         }
         return 0;
     }
-    
-}
\ No newline at end of file
+
+}
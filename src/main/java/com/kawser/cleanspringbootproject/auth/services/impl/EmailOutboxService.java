@@ -0,0 +1,301 @@
+package com.kawser.cleanspringbootproject.auth.services.impl;
+
+import com.kawser.cleanspringbootproject.auth.models.EmailOutbox;
+import com.kawser.cleanspringbootproject.auth.models.EmailStatus;
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import com.kawser.cleanspringbootproject.auth.repositories.EmailOutboxRepository;
+import com.kawser.cleanspringbootproject.auth.services.IEmailOutboxService;
+import com.kawser.cleanspringbootproject.auth.util.EmailUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This service is responsible for the outbox of the emails sent to the users.
+ * The emails are written in the outbox in the transaction of the user update, so the request does not wait for the
+ * mail server. The dispatcher polls the outbox and sends the emails from a bounded pool of workers, each worker
+ * sending a batch of emails over a single connection, and retries the failed ones with an exponential backoff.
+ * The one-time password of an email is cleared once it is sent or failed, and the sent and failed emails are deleted
+ * after the retention.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService implements IEmailOutboxService {
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private EmailUtil emailUtil;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Whether this instance sends the emails of the outbox, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.enabled}")
+    private boolean dispatcherEnabled;
+
+    /**
+     * Maximum number of emails claimed by each poll, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.batch-size}")
+    private int batchSize;
+
+    /**
+     * Number of workers sending the emails, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.pool-size}")
+    private int poolSize;
+
+    /**
+     * Maximum number of emails sent by a worker over a single connection, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.send-batch-size}")
+    private int sendBatchSize;
+
+    /**
+     * Maximum number of attempts to send an email before it is marked as failed, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.max-attempts}")
+    private int maxAttempts;
+
+    /**
+     * Delay before the second attempt, doubled after each failed attempt, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.initial-backoff}")
+    private Duration initialBackoff;
+
+    /**
+     * Maximum delay between two attempts, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.max-backoff}")
+    private Duration maxBackoff;
+
+    /**
+     * Time after which a claimed email that was not sent nor failed (e.g. the instance stopped) can be claimed again,
+     * fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.claim-timeout}")
+    private Duration claimTimeout;
+
+    /**
+     * Time during which the sent and failed emails are kept in the outbox, fetched from application.properties.
+     */
+    @Value("${auth.email.outbox.retention}")
+    private Duration retention;
+
+    private ThreadPoolExecutor workers;
+
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Builds the pool of workers. Its queue holds at most the send batches of one poll, a poll only claims the emails it can queue.
+     * The workers are platform threads even when virtual threads are enabled: Jakarta Mail writes to the SMTP server
+     * inside synchronized methods of its transport, which would pin the carrier of a virtual thread for the whole send.
+     */
+    @PostConstruct
+    public void init() {
+        workers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>((batchSize + sendBatchSize - 1) / sendBatchSize),
+                new CustomizableThreadFactory("email-outbox-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * This method will write an email in the outbox, to be sent by the dispatcher.
+     * It joins the transaction of the caller, so the email is only sent if the user update is committed.
+     * The locale of the current request is saved with the email, to send it in the language of the user.
+     * @param type Type of the email
+     * @param recipient Email address of the recipient
+     * @param token One-time password sent in the email
+     */
+    @Transactional
+    public void enqueue(EmailType type, String recipient, String token) {
+        LocalDateTime now = LocalDateTime.now();
+
+        EmailOutbox email = EmailOutbox.builder()
+                .type(type)
+                .recipient(recipient)
+                .token(token)
+                .locale(LocaleContextHolder.getLocale().toLanguageTag())
+                .status(EmailStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build();
+
+        emailOutboxRepository.save(email);
+
+        log.info("Email {} written in the outbox", type);
+    }
+
+    /**
+     * This method will claim the pending emails that are due and hand them to the workers, in batches of the send batch size.
+     * The claim postpones the next attempt of each email by the claim timeout, so the next polls skip them
+     * while they are being sent.
+     */
+    @Scheduled(fixedDelayString = "${auth.email.outbox.poll-interval}")
+    public void dispatchPendingEmails() {
+        if (!dispatcherEnabled) {
+            return;
+        }
+
+        int capacity = Math.min(batchSize, workers.getQueue().remainingCapacity() * sendBatchSize);
+        if (capacity == 0) {
+            return;
+        }
+
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> claimPendingEmails(capacity));
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        log.info("Dispatching {} emails of the outbox", claimed.size());
+        for (int from = 0; from < claimed.size(); from += sendBatchSize) {
+            List<EmailOutbox> batch = claimed.subList(from, Math.min(from + sendBatchSize, claimed.size()));
+            workers.execute(() -> deliver(batch));
+        }
+    }
+
+    /**
+     * This method will delete the sent and failed emails written before the retention, in a single statement.
+     * Only the instances that send the outbox purge it.
+     */
+    @Scheduled(fixedDelayString = "${auth.email.outbox.purge-interval}")
+    @Transactional
+    public void purgeFinishedEmails() {
+        if (!dispatcherEnabled) {
+            return;
+        }
+
+        int deleted = emailOutboxRepository.deleteByStatusInAndCreatedAtBefore(
+                EnumSet.of(EmailStatus.SENT, EmailStatus.FAILED), LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} sent or failed emails of the outbox", deleted);
+        }
+    }
+
+    /**
+     * Claims the pending emails that are due, the new time of their next attempt is saved when the transaction commits.
+     * @param limit Maximum number of emails to claim
+     * @return the emails claimed
+     */
+    private List<EmailOutbox> claimPendingEmails(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<EmailOutbox> emails = emailOutboxRepository
+                .findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(EmailStatus.PENDING, now, Limit.of(limit));
+        emails.forEach(email -> email.setNextAttemptAt(now.plus(claimTimeout)));
+
+        return emails;
+    }
+
+    /**
+     * Sends the emails over a single connection and saves the result of the attempt of each one.
+     * A failed email is retried after the backoff, or marked as failed when it has no attempt left.
+     * @param emails Emails to send
+     */
+    private void deliver(List<EmailOutbox> emails) {
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        Map<EmailOutbox, Exception> failures = new HashMap<>();
+
+        for (EmailOutbox email : emails) {
+            try {
+                Locale locale = email.getLocale() != null ? Locale.forLanguageTag(email.getLocale()) : null;
+                messages.put(emailUtil.createEmail(email.getType(), locale, email.getRecipient(), email.getToken()), email);
+            } catch (Exception ex) {
+                failures.put(email, ex);
+            }
+        }
+
+        if (!messages.isEmpty()) {
+            try {
+                emailUtil.send(messages.keySet().toArray(MimeMessage[]::new));
+            } catch (MailSendException ex) {
+                if (ex.getFailedMessages().isEmpty()) {
+                    messages.values().forEach(email -> failures.put(email, ex));
+                }
+                ex.getFailedMessages().forEach((message, cause) -> failures.put(messages.get(message), cause));
+            } catch (MailException ex) {
+                messages.values().forEach(email -> failures.put(email, ex));
+            }
+        }
+
+        emails.forEach(email -> recordAttempt(email, failures.get(email)));
+        emailOutboxRepository.saveAll(emails);
+    }
+
+    /**
+     * Records the result of an attempt to send the email.
+     * @param email Email sent
+     * @param failure Error of the attempt, null if the email was sent
+     */
+    private void recordAttempt(EmailOutbox email, Exception failure) {
+        email.setAttempts(email.getAttempts() + 1);
+
+        if (failure == null) {
+            email.setStatus(EmailStatus.SENT);
+            email.setSentAt(LocalDateTime.now());
+            email.setLastError(null);
+            email.setToken(null);
+            return;
+        }
+
+        email.setLastError(truncate(String.valueOf(failure.getMessage())));
+        if (email.getAttempts() >= maxAttempts) {
+            email.setStatus(EmailStatus.FAILED);
+            email.setToken(null);
+            log.error("Email {} with id {} failed after {} attempts", email.getType(), email.getId(), email.getAttempts());
+        } else {
+            email.setNextAttemptAt(LocalDateTime.now().plus(backoff(email.getAttempts())));
+            log.warn("Email {} with id {} failed, attempt {} of {}", email.getType(), email.getId(), email.getAttempts(), maxAttempts);
+        }
+    }
+
+    /**
+     * Computes the delay before the next attempt: the initial backoff doubled after each failed attempt, up to the maximum backoff.
+     * @param attempts Number of attempts already made
+     * @return the delay before the next attempt
+     */
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private String truncate(String error) {
+        return error.length() > 500 ? error.substring(0, 500) : error;
+    }
+}
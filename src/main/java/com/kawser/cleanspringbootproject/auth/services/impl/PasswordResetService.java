@@ -1,23 +1,24 @@
 package com.kawser.cleanspringbootproject.auth.services.impl;
 
 
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
 import com.kawser.cleanspringbootproject.auth.models.dto.password.PasswordResetDTO;
 import com.kawser.cleanspringbootproject.auth.models.dto.password.PasswordResetRequestDTO;
 import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
+import com.kawser.cleanspringbootproject.auth.services.IAuthorizationService;
+import com.kawser.cleanspringbootproject.auth.services.IEmailOutboxService;
 import com.kawser.cleanspringbootproject.auth.services.IPasswordResetService;
-import com.kawser.cleanspringbootproject.auth.util.EmailUtil;
 import com.kawser.cleanspringbootproject.auth.util.OtpUtil;
 import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.InvalidOtpException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.reset.password.MissingArgumentsToResetPasswordException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.reset.password.PasswordsDoNotMatchException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.user.UserNotEnabledException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.user.UserNotFoundException;
-import jakarta.mail.MessagingException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
 /**
@@ -28,21 +29,28 @@ import org.springframework.web.server.ResponseStatusException;
 public class PasswordResetService implements IPasswordResetService {
 
     @Autowired
-    private EmailUtil emailUtil;
+    private IEmailOutboxService emailOutboxService;
 
     @Autowired
     private OtpUtil otpUtil;
 
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private IAuthorizationService authorizationService;
+
     /**
      * Method to request a password reset by email
+     * The email is written in the outbox in the same transaction as the new OTP, and sent later.
      * @param data DTO with the email of the user that wants to reset the password
      * @throws UserNotFoundException if the user with the email is not found
      * @throws UserNotEnabledException if the user is not enabled
-     * @throws MessagingException if an error occurs while sending the email
      */
+    @Transactional
     public void requestReset(PasswordResetRequestDTO data) {
         log.info("Received data to request a password reset");
 
@@ -57,18 +65,12 @@ public class PasswordResetService implements IPasswordResetService {
         user.setOtp(oneTimePassword);
 
         userRepository.save(user); 
-        
-        try {
-            emailUtil.sendRecoverPasswordEmail(data.email(), oneTimePassword.otp());
-        } catch (MessagingException e) {
-            log.error("Error occurred while sending email to reset password");
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR,
-                    "Error occurred while sending email to reset password");
-        }
+        emailOutboxService.enqueue(EmailType.RECOVER_PASSWORD, data.email(), oneTimePassword.otp());
     }
 
     /**
      * Method to reset the password of a user
+     * The user is removed from the user cache, so the old password is no longer accepted.
      * @param email email of the user to reset the password
      * @param token one-time password to reset the password
      * @param data DTO with the new password
@@ -95,11 +97,12 @@ public class PasswordResetService implements IPasswordResetService {
                 throw new PasswordsDoNotMatchException();
             }
 
-            String encryptedPassword = new BCryptPasswordEncoder().encode(data.password());
+            String encryptedPassword = passwordEncoder.encode(data.password());
             user.setPassword(encryptedPassword);
             user.setOtp(null); 
 
             userRepository.save(user);
+            authorizationService.evictUser(user.getUsername());
         }
     }
 }
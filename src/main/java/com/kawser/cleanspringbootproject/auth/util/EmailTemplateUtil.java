@@ -0,0 +1,163 @@
+package com.kawser.cleanspringbootproject.auth.util;
+
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * This class is responsible for the templates of the emails.
+ * The templates are read from classpath:templates/email and parsed once at startup. Each file is named after the
+ * email type, optionally followed by a locale (e.g. verify_account_es.html); its first line is the subject and the
+ * rest is the HTML body, where {{email}} and {{token}} are replaced by the values of the email.
+ */
+@Component
+@Slf4j
+public class EmailTemplateUtil {
+
+    private static final String LOCATION = "classpath*:templates/email/*.html";
+
+    /**
+     * Names of the variables of the templates, in the order of the values given to render.
+     */
+    private static final List<String> VARIABLES = List.of("email", "token");
+
+    /**
+     * A parsed template: the body is kept as the literal parts between the variables and the index of each variable,
+     * so rendering only appends them, without searching the placeholders again.
+     */
+    public record EmailTemplate(String subject, String[] literals, int[] variables) {
+
+        /**
+         * This method will render the body of the template with the given values.
+         * @param builder Builder to render into, it is cleared first
+         * @param values Values of the variables, in the order of VARIABLES
+         * @return the body rendered
+         */
+        public String render(StringBuilder builder, String... values) {
+            builder.setLength(0);
+            builder.append(literals[0]);
+            for (int i = 0; i < variables.length; i++) {
+                builder.append(values[variables[i]]).append(literals[i + 1]);
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * Builder reused by the renders of each thread, so the body is not grown from an empty buffer for every email.
+     */
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    /**
+     * Templates of each type by the locale of their file, only written at startup. The templates are looked up by
+     * the locales of the files, never by the locales requested, so the map does not grow with the requests.
+     */
+    private final Map<EmailType, Map<Locale, EmailTemplate>> templates = new EnumMap<>(EmailType.class);
+
+    /**
+     * Reads and parses all the templates. The application does not start if a type has no default template or if
+     * a template is malformed.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        for (EmailType type : EmailType.values()) {
+            templates.put(type, new HashMap<>());
+        }
+
+        for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+            String name = StringUtils.stripFilenameExtension(resource.getFilename());
+            for (EmailType type : EmailType.values()) {
+                String prefix = type.name().toLowerCase(Locale.ROOT);
+                if (name.equals(prefix) || name.startsWith(prefix + "_")) {
+                    Locale locale = name.equals(prefix) ? Locale.ROOT : StringUtils.parseLocale(name.substring(prefix.length() + 1));
+                    templates.get(type).put(locale, parse(resource.getFilename(), resource.getContentAsString(StandardCharsets.UTF_8)));
+                }
+            }
+        }
+
+        for (EmailType type : EmailType.values()) {
+            if (!templates.get(type).containsKey(Locale.ROOT)) {
+                throw new IllegalStateException("Missing email template " + type.name().toLowerCase(Locale.ROOT) + ".html");
+            }
+        }
+        templates.forEach((type, byLocale) -> log.info("Email templates of {} loaded for the locales {}", type, byLocale.keySet()));
+    }
+
+    /**
+     * This method will return the template of the type for the locale.
+     * It falls back to the template of the language of the locale, and then to the default template.
+     * @param type Type of the email
+     * @param locale Locale of the user, null for the default template
+     * @return the template
+     */
+    public EmailTemplate getTemplate(EmailType type, Locale locale) {
+        Map<Locale, EmailTemplate> byLocale = templates.get(type);
+        if (locale == null) {
+            return byLocale.get(Locale.ROOT);
+        }
+        EmailTemplate template = byLocale.get(locale);
+        if (template == null) {
+            template = byLocale.get(Locale.of(locale.getLanguage()));
+        }
+        return template != null ? template : byLocale.get(Locale.ROOT);
+    }
+
+    /**
+     * This method will render the body of the template into the builder of the current thread.
+     * @param template Template to render
+     * @param email Email of the recipient
+     * @param token One-time password sent in the email
+     * @return the body rendered
+     */
+    public String render(EmailTemplate template, String email, String token) {
+        return template.render(BUFFER.get(), email, token);
+    }
+
+    /**
+     * Parses a template: the first line is the subject, the rest is the body.
+     * @throws IllegalStateException if the template has no body, or if the body uses an unknown or unclosed variable
+     */
+    private EmailTemplate parse(String name, String content) {
+        int endOfSubject = content.indexOf('\n');
+        if (endOfSubject < 0) {
+            throw new IllegalStateException("Email template " + name + " must have the subject on its first line and the body after it");
+        }
+        String subject = content.substring(0, endOfSubject).strip();
+        String body = content.substring(endOfSubject + 1);
+
+        List<String> literals = new ArrayList<>();
+        List<Integer> variables = new ArrayList<>();
+        int from = 0;
+        int start;
+        while ((start = body.indexOf("{{", from)) >= 0) {
+            int end = body.indexOf("}}", start);
+            if (end < 0) {
+                throw new IllegalStateException("Unclosed variable in email template " + name);
+            }
+            String variable = body.substring(start + 2, end).strip();
+            if (!VARIABLES.contains(variable)) {
+                throw new IllegalStateException("Unknown variable in email template " + name + ": " + variable);
+            }
+            literals.add(body.substring(from, start));
+            variables.add(VARIABLES.indexOf(variable));
+            from = end + 2;
+        }
+        literals.add(body.substring(from));
+
+        return new EmailTemplate(subject, literals.toArray(String[]::new),
+                variables.stream().mapToInt(Integer::intValue).toArray());
+    }
+}
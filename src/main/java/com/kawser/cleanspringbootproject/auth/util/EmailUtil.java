@@ -1,12 +1,18 @@
 package com.kawser.cleanspringbootproject.auth.util;
 
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
 /**
  * This class is responsible for sending emails.
  */
@@ -19,53 +25,36 @@ public class EmailUtil {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailTemplateUtil emailTemplateUtil;
+
     /**
-     * Sends an email with the OTP to verify the account.
-     * @param email email to send the OTP
-     * @param otp OTP to verify the account
-     * @throws MessagingException if an error occurs while sending the email
+     * Sends the emails in a batch, over a single connection to the mail server.
+     * @param messages emails to send
+     * @throws MailException if an error occurs while sending the emails, a MailSendException holds the failed ones
      */
-    public void sendOtpEmail(String email, String otp) throws MessagingException {
-        MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-        helper.setTo(email);
-        helper.setSubject("Verify your account");
-        helper.setText(
-                        """
-                        <div>
-                        <a href="https://localhost:8080/auth/verify-account?email=%s&token=%s">
-                        Click here to verify your account
-                        </a>
-                        </div>
-                        """
-                        .formatted(email, otp),
-                true);
-
-        mailSender.send(message);
+    public void send(MimeMessage... messages) throws MailException {
+        mailSender.send(messages);
     }
 
     /**
-     * Sends an email with the OTP to recover the password.
+     * Creates the email of the given type from its template for the locale of the user, without sending it.
+     * The email has no attachment, so it is a single-part HTML message instead of a multipart one.
+     * @param type type of the email
+     * @param locale locale of the user, null for the default template
      * @param email email to send the OTP
-     * @param otp OTP to recover the password
-     * @throws MessagingException if an error occurs while sending the email
+     * @param otp OTP sent in the email
+     * @throws MessagingException if an error occurs while creating the email
+     * @return the email created
      */
-    public void sendRecoverPasswordEmail(String email, String otp) throws MessagingException {
+    public MimeMessage createEmail(EmailType type, Locale locale, String email, String otp) throws MessagingException {
+        EmailTemplateUtil.EmailTemplate template = emailTemplateUtil.getTemplate(type, locale);
+
         MimeMessage message = mailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true);
-        helper.setTo(email);
-        helper.setSubject("Recover your password");
-        helper.setText(
-                """
-                        <div>
-                        <a href="http://localhost:8080/password/reset?email=%s&token=%s">
-                        Click here to set a new password
-                        </a>
-                        </div>
-                        """
-                        .formatted(email, otp),
-                true);
-        
-        mailSender.send(message);        
+        message.setRecipient(Message.RecipientType.TO, new InternetAddress(email));
+        message.setSubject(template.subject(), StandardCharsets.UTF_8.name());
+        message.setText(emailTemplateUtil.render(template, email, otp), StandardCharsets.UTF_8.name(), "html");
+
+        return message;
     }
 }
@@ -0,0 +1,90 @@
+package com.kawser.cleanspringbootproject.config.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.actuate.metrics.cache.CaffeineCacheMeterBinderProvider;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * This class is responsible for configuring the caches used through the cache annotations.
+ * Each cache is a Caffeine cache bounded by the specification fetched from the application.properties,
+ * so no cache can grow without limit.
+ */
+@Configuration
+public class CacheConfigurations {
+
+    /**
+     * Caffeine specification of the products cache, holding each product by its id, fetched from application.properties.
+     */
+    @Value("${cache.products.spec}")
+    private String productsSpec;
+
+    /**
+     * Caffeine specification of the product listings cache, holding the pages of products, fetched from application.properties.
+     */
+    @Value("${cache.product-listings.spec}")
+    private String productListingsSpec;
+
+    /**
+     * Configures the CacheManager with the caches defined in the application.properties.
+     * Only these caches exist: using any other cache name fails instead of silently creating an unbounded cache.
+     * The statistics of each cache are recorded, so Actuator publishes them as the cache.* metrics.
+     * Each cache is decorated with single-flight loading, see CoalescingCache.
+     * @return CacheManager configured
+     */
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new CoalescingCache(super.adaptCaffeineCache(name, cache));
+            }
+        };
+        cacheManager.setCacheNames(List.of());
+        cacheManager.registerCustomCache("products", buildCache(productsSpec));
+        cacheManager.registerCustomCache("productListings", buildCache(productListingsSpec));
+        return cacheManager;
+    }
+
+    /**
+     * Publishes the metrics of the caches decorated with single-flight loading:
+     * the Caffeine statistics as the cache.* metrics, and the number of loads that waited for another one
+     * as the cache.loads.coalesced metric.
+     * @return CacheMeterBinderProvider of the CoalescingCache
+     */
+    @Bean
+    public CacheMeterBinderProvider<CoalescingCache> coalescingCacheMeterBinderProvider() {
+        CaffeineCacheMeterBinderProvider caffeineProvider = new CaffeineCacheMeterBinderProvider();
+        return (cache, tags) -> registry -> {
+            if (cache.getDelegate() instanceof CaffeineCache caffeineCache) {
+                caffeineProvider.getMeterBinder(caffeineCache, tags).bindTo(registry);
+            }
+            FunctionCounter.builder("cache.loads.coalesced", cache, CoalescingCache::getCoalescedLoads)
+                    .tags(tags)
+                    .tag("cache", cache.getName())
+                    .description("The number of cache loads that waited for the same load of another call")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Builds a Caffeine cache with the given specification, recording its statistics.
+     * Note: refreshAfterWrite cannot be used here, because the cache annotations do not provide a loader to refresh an entry.
+     * @param spec Caffeine specification (maximumSize, expireAfterWrite, expireAfterAccess, ...)
+     * @return Cache built
+     */
+    private Cache<Object, Object> buildCache(String spec) {
+        return Caffeine.from(spec)
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,175 @@
+package com.kawser.cleanspringbootproject.config.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class decorates a cache with single-flight loading.
+ * When concurrent calls miss the same key, only the first one runs the loader (and queries the database),
+ * the others wait for its result instead of running the same query at the same time.
+ * The loader is only used by the methods annotated with @Cacheable(sync = true).
+ */
+public class CoalescingCache implements Cache {
+
+    private final Cache delegate;
+
+    /**
+     * Loads in progress by key, completed with the loaded value or with the failure of the loader.
+     */
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loads = new ConcurrentHashMap<>();
+
+    /**
+     * Number of calls that waited for the load of another call instead of running the loader.
+     */
+    private final LongAdder coalescedLoads = new LongAdder();
+
+    public CoalescingCache(Cache delegate) {
+        this.delegate = delegate;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * This method will return the number of calls that waited for the load of another call instead of running the loader.
+     * @return the number of coalesced loads
+     */
+    public long getCoalescedLoads() {
+        return coalescedLoads.sum();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    /**
+     * This method will return the value cached for the key, loading it if it is missing.
+     * If another call is already loading the same key, this call waits for its value or its failure.
+     * A failed load is not cached, so the next call after it runs the loader again.
+     * @param key Key of the value
+     * @param valueLoader Loader of the value, run only by the first call that misses the key
+     * @throws ValueRetrievalException if the loader fails
+     * @return the cached or loaded value
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = delegate.get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loads.putIfAbsent(key, load);
+        if (inFlight != null) {
+            coalescedLoads.increment();
+            return (T) await(inFlight);
+        }
+
+        try {
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception ex) {
+                throw new ValueRetrievalException(key, valueLoader, ex);
+            }
+            cacheUnlessEvicted(key, load, value);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(key, load);
+        }
+    }
+
+    /**
+     * Caches the loaded value unless the key was evicted while it was loading, the load being unregistered at the same
+     * time. The value is put while the load is still registered, so an eviction of the key, which unregisters the load
+     * first, either happens before and the value is not cached, or waits for the put and then evicts the value.
+     */
+    private void cacheUnlessEvicted(Object key, CompletableFuture<Object> load, Object value) {
+        loads.computeIfPresent(key, (k, inFlight) -> {
+            if (inFlight != load) {
+                return inFlight;
+            }
+            delegate.put(key, value);
+            return null;
+        });
+    }
+
+    /**
+     * Waits for a load started by another call and rethrows its failure as it was thrown to that call.
+     */
+    private Object await(CompletableFuture<Object> load) {
+        try {
+            return load.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (ex.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw ex;
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        loads.remove(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        loads.remove(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        loads.clear();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        loads.clear();
+        return delegate.invalidate();
+    }
+}
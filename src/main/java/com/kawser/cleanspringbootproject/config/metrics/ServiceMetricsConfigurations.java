@@ -0,0 +1,59 @@
+package com.kawser.cleanspringbootproject.config.metrics;
+
+import com.kawser.cleanspringbootproject.api.services.IProductExportService;
+import com.kawser.cleanspringbootproject.api.services.IProductImportService;
+import com.kawser.cleanspringbootproject.api.services.IProductService;
+import com.kawser.cleanspringbootproject.auth.services.IAuthenticationService;
+import com.kawser.cleanspringbootproject.auth.services.IPasswordResetService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+/**
+ * This class is responsible for configuring the metrics of the services.
+ * Every method of the service interfaces below is timed by the ServiceMetricsInterceptor, around the cache and the
+ * transaction of the method, so the timer of a service method includes its cache lookup. Together with the
+ * http.server.requests timer of the controllers, it tells the time spent in the service from the rest of the request.
+ */
+@Configuration
+public class ServiceMetricsConfigurations {
+
+    /**
+     * Interfaces of the services whose methods are timed.
+     */
+    private static final List<Class<?>> TIMED_SERVICES =
+            List.of(IProductService.class, IProductImportService.class, IProductExportService.class,
+                    IAuthenticationService.class, IPasswordResetService.class);
+
+    /**
+     * Applies the ServiceMetricsInterceptor to the methods of the timed services.
+     * It is an infrastructure advisor, so it is applied by the same proxies as the cache and transaction advisors,
+     * and it has the highest precedence so it runs before them.
+     * @param meterRegistry Registry of the timers
+     * @return Advisor of the service methods
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return TIMED_SERVICES.stream().anyMatch(service -> service.isAssignableFrom(targetClass)
+                        && ReflectionUtils.findMethod(service, method.getName(), method.getParameterTypes()) != null);
+            }
+        }, new ServiceMetricsInterceptor(meterRegistry::getObject));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
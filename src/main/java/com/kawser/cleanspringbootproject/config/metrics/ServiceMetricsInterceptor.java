@@ -0,0 +1,66 @@
+package com.kawser.cleanspringbootproject.config.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * This interceptor times each call to a service method as the service.method timer, with a percentile histogram.
+ * Each call is tagged with the service, the method, its outcome (SUCCESS or ERROR) and the simple name of the
+ * exception thrown, "none" when it returned.
+ */
+public class ServiceMetricsInterceptor implements MethodInterceptor {
+
+    public static final String METRIC_NAME = "service.method";
+
+    private static final String NO_EXCEPTION = "none";
+
+    private final Supplier<MeterRegistry> meterRegistryProvider;
+
+    private volatile Meter.MeterProvider<Timer> timers;
+
+    /**
+     * @param meterRegistryProvider Registry of the timers, resolved on the first call so it is not created while the
+     *                              services are being proxied
+     */
+    public ServiceMetricsInterceptor(Supplier<MeterRegistry> meterRegistryProvider) {
+        this.meterRegistryProvider = meterRegistryProvider;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        String exception = NO_EXCEPTION;
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            exception = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            timers().withTags(
+                    "service", AopUtils.getTargetClass(invocation.getThis()).getSimpleName(),
+                    "method", invocation.getMethod().getName(),
+                    "outcome", NO_EXCEPTION.equals(exception) ? "SUCCESS" : "ERROR",
+                    "exception", exception)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Meter.MeterProvider<Timer> timers() {
+        Meter.MeterProvider<Timer> provider = timers;
+        if (provider == null) {
+            provider = Timer.builder(METRIC_NAME)
+                    .description("Time of the calls to the service methods")
+                    .publishPercentileHistogram()
+                    .withRegistry(meterRegistryProvider.get());
+            timers = provider;
+        }
+        return provider;
+    }
+}
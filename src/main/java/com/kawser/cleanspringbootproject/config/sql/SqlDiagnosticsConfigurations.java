@@ -0,0 +1,61 @@
+package com.kawser.cleanspringbootproject.config.sql;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * This class is responsible for configuring the SQL diagnostics, enabled by sql.diagnostics.enabled.
+ * The data source is wrapped by a proxy that times every statement and hands it to the SqlStatementRecorder,
+ * which keeps a sample of them for the sql Actuator endpoint and logs the slow ones.
+ * It replaces spring.jpa.show-sql, which prints every statement to the standard output.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.diagnostics.enabled", havingValue = "true")
+public class SqlDiagnosticsConfigurations {
+
+    /**
+     * Configures the recorder with the buffer size, sample rate and slow query threshold fetched from application.properties.
+     * @return SqlStatementRecorder configured
+     */
+    @Bean
+    public SqlStatementRecorder sqlStatementRecorder(
+            @Value("${sql.diagnostics.buffer-size}") int bufferSize,
+            @Value("${sql.diagnostics.sample-rate}") double sampleRate,
+            @Value("${sql.diagnostics.slow-query-threshold}") Duration slowQueryThreshold) {
+        return new SqlStatementRecorder(bufferSize, sampleRate, slowQueryThreshold);
+    }
+
+    @Bean
+    public SqlEndpoint sqlEndpoint(SqlStatementRecorder sqlStatementRecorder) {
+        return new SqlEndpoint(sqlStatementRecorder);
+    }
+
+    /**
+     * Wraps the data source with a proxy that reports each statement to the recorder.
+     * It is static so it is registered before the data source is created; the recorder is looked up lazily.
+     * @param sqlStatementRecorder Recorder of the statements
+     * @return BeanPostProcessor wrapping the data source
+     */
+    @Bean
+    public static BeanPostProcessor sqlDiagnosticsDataSourcePostProcessor(ObjectProvider<SqlStatementRecorder> sqlStatementRecorder) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(sqlStatementRecorder.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
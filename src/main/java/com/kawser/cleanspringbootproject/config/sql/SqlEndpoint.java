@@ -0,0 +1,44 @@
+package com.kawser.cleanspringbootproject.config.sql;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * This Actuator endpoint shows the SQL statements sampled by the SqlStatementRecorder, at /actuator/sql.
+ * GET returns the statements the most recent first, ?slow=true only the slow ones; DELETE clears them.
+ */
+@Endpoint(id = "sql")
+public class SqlEndpoint {
+
+    private final SqlStatementRecorder recorder;
+
+    public SqlEndpoint(SqlStatementRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * The statements returned by the endpoint.
+     * @param recorded Number of statements recorded since the start, including the ones no longer in the buffer
+     * @param statements Statements in the buffer, the most recent first
+     */
+    public record SqlStatementsDescriptor(long recorded, List<SqlStatementRecorder.SqlStatement> statements) {
+    }
+
+    @ReadOperation
+    public SqlStatementsDescriptor statements(@Nullable Boolean slow) {
+        List<SqlStatementRecorder.SqlStatement> statements = recorder.getStatements();
+        if (Boolean.TRUE.equals(slow)) {
+            statements = statements.stream().filter(SqlStatementRecorder.SqlStatement::slow).toList();
+        }
+        return new SqlStatementsDescriptor(recorder.getRecordedCount(), statements);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        recorder.clear();
+    }
+}
@@ -0,0 +1,114 @@
+package com.kawser.cleanspringbootproject.config.sql;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * This class records the SQL statements executed through the data source, with their execution time.
+ * A sample of the statements is kept in a ring buffer of fixed capacity, the oldest ones being overwritten, so
+ * recording costs no I/O and no memory growth. A statement slower than the slow query threshold is always recorded
+ * and logged as a warning. Only the SQL with its placeholders is kept, never the values of the parameters.
+ */
+@Slf4j
+public class SqlStatementRecorder implements QueryExecutionListener {
+
+    private static final String START_TIME = "sqlStatementRecorder.startTime";
+
+    /**
+     * A statement recorded, its sequence number orders the statements from the oldest to the most recent.
+     */
+    public record SqlStatement(long sequence, Instant executedAt, String sql, double elapsedMillis, boolean success,
+                               int batchSize, boolean slow) {
+    }
+
+    private final AtomicReferenceArray<SqlStatement> buffer;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final double sampleRate;
+
+    private final long slowQueryThresholdNanos;
+
+    /**
+     * @param capacity Number of statements kept in the buffer
+     * @param sampleRate Fraction of the statements recorded, between 0 and 1
+     * @param slowQueryThreshold Execution time from which a statement is always recorded and logged
+     */
+    public SqlStatementRecorder(int capacity, double sampleRate, Duration slowQueryThreshold) {
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sampleRate = sampleRate;
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_TIME, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startTime = execInfo.getCustomValue(START_TIME, Long.class);
+        long elapsed = startTime != null ? System.nanoTime() - startTime : Duration.ofMillis(execInfo.getElapsedTime()).toNanos();
+        boolean slow = elapsed >= slowQueryThresholdNanos;
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        String sql = queryInfoList.size() == 1
+                ? queryInfoList.get(0).getQuery()
+                : queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        double elapsedMillis = elapsed / 1_000_000.0;
+        if (slow) {
+            log.warn("Slow SQL statement ({} ms): {}", elapsedMillis, sql);
+        }
+
+        long number = sequence.getAndIncrement();
+        buffer.set((int) (number % buffer.length()), new SqlStatement(number, Instant.now(), sql, elapsedMillis,
+                execInfo.isSuccess(), execInfo.isBatch() ? execInfo.getBatchSize() : 0, slow));
+    }
+
+    /**
+     * This method will return the statements in the buffer, the most recent first.
+     * @return the statements recorded
+     */
+    public List<SqlStatement> getStatements() {
+        List<SqlStatement> statements = new ArrayList<>(buffer.length());
+        for (int i = 0; i < buffer.length(); i++) {
+            SqlStatement statement = buffer.get(i);
+            if (statement != null) {
+                statements.add(statement);
+            }
+        }
+        statements.sort(Comparator.comparingLong(SqlStatement::sequence).reversed());
+        return statements;
+    }
+
+    /**
+     * This method will return the number of statements recorded since the start, including the overwritten ones.
+     * @return the number of statements recorded
+     */
+    public long getRecordedCount() {
+        return sequence.get();
+    }
+
+    /**
+     * This method will remove all the statements from the buffer.
+     */
+    public void clear() {
+        for (int i = 0; i < buffer.length(); i++) {
+            buffer.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.kawser.cleanspringbootproject.exception.api.domain.pagination;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * The InvalidCursorException class is responsible for throwing an exception when the continuation token
+ * of a keyset pagination request cannot be decoded.
+ *
+ */
+@Slf4j
+public class InvalidCursorException extends RuntimeException {
+
+    private final static ResourceBundle bundle = ResourceBundle.getBundle("messages", Locale.getDefault());
+
+    /**
+     * Constructor for the exception that is thrown when the continuation token is invalid.
+     *
+     * @param cursor the continuation token that could not be decoded.
+     *
+     */
+    public InvalidCursorException(String cursor) {
+        super(bundle.getString("pagination.invalid_cursor"));
+        log.error("Invalid pagination cursor: {}", cursor);
+    }
+}
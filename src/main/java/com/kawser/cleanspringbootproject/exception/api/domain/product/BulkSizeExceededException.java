@@ -0,0 +1,31 @@
+package com.kawser.cleanspringbootproject.exception.api.domain.product;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * This class represents the exception that is thrown when a bulk request has more products than allowed.
+ * Reference for the error message in the messages.properties file: product.bulk_size_exceeded
+ *
+ */
+@Slf4j
+public class BulkSizeExceededException extends RuntimeException {
+
+    private final static ResourceBundle bundle = ResourceBundle.getBundle("messages", Locale.getDefault());
+
+    /**
+     * Constructor for the exception that is thrown when a bulk request has more products than allowed.
+     *
+     * @param size the number of products of the request.
+     * @param maxSize the maximum number of products of a request.
+     *
+     */
+    public BulkSizeExceededException(int size, int maxSize) {
+        super(bundle.getString("product.bulk_size_exceeded")
+                .replace("{max}", String.valueOf(maxSize))
+                .replace("{size}", String.valueOf(size)));
+        log.error("Bulk request of {} products, the maximum is {}", size, maxSize);
+    }
+}
@@ -0,0 +1,29 @@
+package com.kawser.cleanspringbootproject.exception.api.domain.product;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * This class represents the exception that is thrown when the file of a product import job is sent to a job that
+ * already received one.
+ * Reference for the error message in the messages.properties file: product.import_job_already_started
+ *
+ */
+@Slf4j
+public class ImportJobAlreadyStartedException extends RuntimeException {
+
+    private final static ResourceBundle bundle = ResourceBundle.getBundle("messages", Locale.getDefault());
+
+    /**
+     * Constructor for the exception that is thrown when the file of a product import job is sent twice.
+     *
+     * @param id the id of the job that already received its file.
+     *
+     */
+    public ImportJobAlreadyStartedException(String id) {
+        super(bundle.getString("product.import_job_already_started").replace("{id}", id));
+        log.error("Import job {} already started.", id);
+    }
+}
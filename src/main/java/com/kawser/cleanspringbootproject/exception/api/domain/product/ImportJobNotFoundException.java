@@ -0,0 +1,28 @@
+package com.kawser.cleanspringbootproject.exception.api.domain.product;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+/**
+ * This class represents the exception that is thrown when a product import job with the given id is not found.
+ * Reference for the error message in the messages.properties file: product.import_job_not_found
+ *
+ */
+@Slf4j
+public class ImportJobNotFoundException extends RuntimeException {
+
+    private final static ResourceBundle bundle = ResourceBundle.getBundle("messages", Locale.getDefault());
+
+    /**
+     * Constructor for the exception that is thrown when a product import job with the given id is not found.
+     *
+     * @param id the id of the job that is not found.
+     *
+     */
+    public ImportJobNotFoundException(String id) {
+        super(bundle.getString("product.import_job_not_found").replace("{id}", id));
+        log.error("Import job {} not found.", id);
+    }
+}
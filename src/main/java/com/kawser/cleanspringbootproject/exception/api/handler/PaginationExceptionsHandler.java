@@ -1,6 +1,7 @@
 package com.kawser.cleanspringbootproject.exception.api.handler;
 
 import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidArgumentsToPaginationException;
+import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidCursorException;
 import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidSortDirectionException;
 import com.kawser.cleanspringbootproject.exception.message.RestErrorMessage;
 import org.springframework.http.HttpStatus;
@@ -40,4 +41,16 @@ public class PaginationExceptionsHandler extends ResponseEntityExceptionHandler
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(threatResponse);
     }
 
+    /**
+     * This method handles InvalidCursorException. It returns a response with status 400.
+     * @param ex InvalidCursorException
+     * @return ResponseEntity<RestErrorMessage> with status 400 and the exception message
+     */
+    @ExceptionHandler(InvalidCursorException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<RestErrorMessage> handleInvalidCursorException(InvalidCursorException ex) {
+        RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.BAD_REQUEST, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(threatResponse);
+    }
+
 }
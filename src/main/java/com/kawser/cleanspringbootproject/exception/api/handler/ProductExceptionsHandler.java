@@ -1,5 +1,8 @@
 package com.kawser.cleanspringbootproject.exception.api.handler;
 
+import com.kawser.cleanspringbootproject.exception.api.domain.product.BulkSizeExceededException;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobAlreadyStartedException;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobNotFoundException;
 import com.kawser.cleanspringbootproject.exception.api.domain.product.InvalidProductNameException;
 import com.kawser.cleanspringbootproject.exception.api.domain.product.ProductNotFoundException;
 import com.kawser.cleanspringbootproject.exception.api.domain.product.ProductsEmptyException;
@@ -52,4 +55,40 @@ public class ProductExceptionsHandler extends ResponseEntityExceptionHandler {
         RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.BAD_REQUEST, ex.getMessage());
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(threatResponse);
     }
+
+    /**
+     * This method handles BulkSizeExceededException. It returns a response with status 400.
+     * @param ex BulkSizeExceededException
+     * @return ResponseEntity<RestErrorMessage> with status 400 and the exception message
+     */
+    @ExceptionHandler(BulkSizeExceededException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<RestErrorMessage> handleBulkSizeExceededException(BulkSizeExceededException ex) {
+        RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.BAD_REQUEST, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(threatResponse);
+    }
+
+    /**
+     * This method handles ImportJobNotFoundException. It returns a response with status 404.
+     * @param ex ImportJobNotFoundException
+     * @return ResponseEntity<RestErrorMessage> with status 404 and the exception message
+     */
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    public ResponseEntity<RestErrorMessage> handleImportJobNotFoundException(ImportJobNotFoundException ex) {
+        RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.NOT_FOUND, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(threatResponse);
+    }
+
+    /**
+     * This method handles ImportJobAlreadyStartedException. It returns a response with status 409.
+     * @param ex ImportJobAlreadyStartedException
+     * @return ResponseEntity<RestErrorMessage> with status 409 and the exception message
+     */
+    @ExceptionHandler(ImportJobAlreadyStartedException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ResponseEntity<RestErrorMessage> handleImportJobAlreadyStartedException(ImportJobAlreadyStartedException ex) {
+        RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.CONFLICT, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(threatResponse);
+    }
 }
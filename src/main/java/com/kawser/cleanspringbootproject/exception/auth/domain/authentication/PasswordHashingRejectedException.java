@@ -0,0 +1,22 @@
+package com.kawser.cleanspringbootproject.exception.auth.domain.authentication;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+@Slf4j
+public class PasswordHashingRejectedException extends RuntimeException{
+
+    private final static ResourceBundle bundle = ResourceBundle.getBundle("messages", Locale.getDefault());
+
+    public PasswordHashingRejectedException() {
+        super(bundle.getString("auth.password_hashing_busy"));
+        log.warn(bundle.getString("auth.password_hashing_busy"));
+    }
+
+    public PasswordHashingRejectedException(Throwable cause) {
+        super(bundle.getString("auth.password_hashing_busy"), cause);
+        log.warn(bundle.getString("auth.password_hashing_busy"));
+    }
+}
@@ -2,7 +2,9 @@ package com.kawser.cleanspringbootproject.exception.auth.handler;
 
 import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.InvalidCredentialsException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.InvalidOtpException;
+import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.PasswordHashingRejectedException;
 import com.kawser.cleanspringbootproject.exception.message.RestErrorMessage;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -39,4 +41,17 @@ public class AuthExceptionsHandler extends ResponseEntityExceptionHandler {
         RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.UNAUTHORIZED, ex.getMessage());
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(threatResponse);
     }
+
+    /**
+     * This method handles PasswordHashingRejectedException. It returns a response with status 503.
+     * The Retry-After header asks the client to wait a second before trying again.
+     * @param ex PasswordHashingRejectedException
+     * @return ResponseEntity<RestErrorMessage> with status 503 and the exception message
+     */
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ResponseEntity<RestErrorMessage> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+        RestErrorMessage threatResponse = new RestErrorMessage(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(threatResponse);
+    }
 }
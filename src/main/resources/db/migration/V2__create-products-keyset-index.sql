@@ -0,0 +1,8 @@
+-- This file contains the SQL script to support keyset (seek) pagination of products
+-- Products are walked in (name, id) order, so a composite index lets the database seek
+-- directly to the row after the cursor instead of scanning and discarding an OFFSET
+
+CREATE INDEX idx_products_name_id ON products (name, id);
+
+-- The composite index also serves every lookup the single column index did
+DROP INDEX idx_products_name;
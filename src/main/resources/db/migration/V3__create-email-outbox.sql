@@ -0,0 +1,18 @@
+-- This file contains the SQL script to create the outbox of the emails to send
+-- The emails are written in the same transaction as the user update and sent later by the dispatcher
+
+CREATE TABLE email_outbox (
+                              id BIGSERIAL PRIMARY KEY,
+                              type VARCHAR(30) NOT NULL,
+                              recipient VARCHAR(255) NOT NULL,
+                              token VARCHAR(255) NOT NULL,
+                              status VARCHAR(10) NOT NULL,
+                              attempts INTEGER NOT NULL DEFAULT 0,
+                              next_attempt_at TIMESTAMP NOT NULL,
+                              created_at TIMESTAMP NOT NULL,
+                              sent_at TIMESTAMP,
+                              last_error VARCHAR(500)
+);
+
+-- The dispatcher polls the pending emails that are due, oldest first
+CREATE INDEX idx_email_outbox_status_next_attempt_at ON email_outbox (status, next_attempt_at);
@@ -0,0 +1,4 @@
+-- This file contains the SQL script to store the locale of the user with each email of the outbox
+-- The template of the email is chosen by this locale when it is sent
+
+ALTER TABLE email_outbox ADD COLUMN locale VARCHAR(35);
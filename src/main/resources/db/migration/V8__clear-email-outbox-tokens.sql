@@ -0,0 +1,6 @@
+-- This file contains the SQL script to clear the one-time passwords of the emails of the outbox once they are sent
+-- or failed: the token of these emails is null, and the emails already finished lose theirs
+
+ALTER TABLE email_outbox ALTER COLUMN token DROP NOT NULL;
+
+UPDATE email_outbox SET token = NULL WHERE status IN ('SENT', 'FAILED');
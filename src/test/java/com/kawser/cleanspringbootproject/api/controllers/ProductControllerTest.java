@@ -1,7 +1,9 @@
 package com.kawser.cleanspringbootproject.api.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
 import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
 import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -9,15 +11,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
@@ -48,6 +54,11 @@ public class ProductControllerTest {
         doNothing().when(productService).createProduct(dto);
         doNothing().when(productService).updateProduct(1L, dto);
         doNothing().when(productService).deleteProduct(1L);
+        when(productService.getSliceWithPagination(0, 10, new String[]{"name", "asc"}))
+                .thenReturn(new SliceImpl<>(List.of(dto), PageRequest.of(0, 10), true));
+        when(productService.getWithCursor("", 10, "asc")).thenReturn(new CursorPageDTO<>(List.of(dto), "next", true));
+        when(productService.searchProducts("test", "", 10))
+                .thenReturn(new CursorPageDTO<>(List.of(new ProductSearchResultDTO(dto, 0.5f)), null, false));
     }
 
     // ### Test methods when the user is authenticated as an ADMIN, which has all the permissions ###
@@ -91,6 +102,33 @@ public class ProductControllerTest {
                 .andExpect(status().isOk()); // The admin user is allowed to delete a product
     }
 
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testUpdateProductsAsAdmin() throws Exception {
+        mockMvc.perform(put("/products/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"priceFactor\":0.9}"))
+                .andExpect(status().isOk()); // The admin user is allowed to update products in bulk
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testUpdateProductsWithTwoPriceChangesAsAdmin() throws Exception {
+        mockMvc.perform(put("/products/bulk-update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[1,2],\"price\":5.0,\"priceFactor\":0.9}"))
+                .andExpect(status().isBadRequest()); // Only one of price and priceFactor can be given
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testDeleteProductsAsAdmin() throws Exception {
+        mockMvc.perform(post("/products/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk()); // The admin user is allowed to delete products in bulk
+    }
+
     // ### Test methods when the user is authenticated as a USER, which has limited permissions ###
     @Test
     @WithMockUser(roles = "USER")
@@ -132,6 +170,15 @@ public class ProductControllerTest {
                 .andExpect(status().isForbidden()); // The user is prohibited from deleting a product
     }
 
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testDeleteProductsAsUser() throws Exception {
+        mockMvc.perform(post("/products/bulk-delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isForbidden()); // The user is prohibited from deleting products in bulk
+    }
+
     // ### Test methods when the user is not authenticated ###
     @Test
     public void testCreateProductAsNotAuthenticated() throws Exception {
@@ -168,4 +215,44 @@ public class ProductControllerTest {
                         .param("product", "1"))
                 .andExpect(status().isForbidden()); // The guest user is prohibited from deleting a product
     }
+
+    @Test
+    public void testFindAllWithoutTotalAsNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/products/paginated")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk()) // The guest user is allowed to list the products
+                .andExpect(jsonPath("$.content[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void testFindAllWithCursorAsNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/products/paginated")
+                        .param("cursor", ""))
+                .andExpect(status().isOk()) // The guest user is allowed to list the products
+                .andExpect(jsonPath("$.content[0].name").value("Test Product"))
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    public void testFindAllWithCursorAndWithoutTotalAsNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/products/paginated")
+                        .param("cursor", "")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk()) // The cursor selects the keyset pagination, which never counts the total
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    public void testSearchProductsAsNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/products/search")
+                        .param("q", "test"))
+                .andExpect(status().isOk()) // The guest user is allowed to search the products
+                .andExpect(jsonPath("$.content[0].product.name").value("Test Product"))
+                .andExpect(jsonPath("$.content[0].rank").value(0.5))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
 }
@@ -0,0 +1,96 @@
+package com.kawser.cleanspringbootproject.api.controllers;
+
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProductExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository.saveAll(List.of(
+                new Product("X0001", "Apple", 1.5, "Red"),
+                new Product("X0002", "Banana", 0.5, null)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testExportNdjsonAsAdmin() throws Exception {
+        // The body is written asynchronously, after the handler has returned
+        MvcResult result = mockMvc.perform(get("/products/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk()) // The admin user is allowed to export the products
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"products.ndjson\""))
+                .andExpect(content().string("""
+                        {"code":"X0001","name":"Apple","price":1.5,"description":"Red"}
+                        {"code":"X0002","name":"Banana","price":0.5,"description":null}
+                        """));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testExportCsvAsAdmin() throws Exception {
+        MvcResult result = mockMvc.perform(get("/products/export").param("format", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(
+                        "code,name,price,description\r\nX0001,Apple,1.5,Red\r\nX0002,Banana,0.5,\r\n"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testExportUnsupportedFormatAsAdmin() throws Exception {
+        mockMvc.perform(get("/products/export").param("format", "XML"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testExportAsUser() throws Exception {
+        mockMvc.perform(get("/products/export"))
+                .andExpect(status().isForbidden()); // The user is prohibited from exporting the products
+    }
+}
@@ -0,0 +1,126 @@
+package com.kawser.cleanspringbootproject.api.controllers;
+
+import com.kawser.cleanspringbootproject.api.models.ImportJobStatus;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductImportJobDTO;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductImportService;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobAlreadyStartedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ProductImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ProductImportService productImportService;
+
+    private ProductImportJobDTO job;
+
+    @BeforeEach
+    public void setUp() {
+        job = new ProductImportJobDTO("job-1", ProductFileFormat.CSV, ImportJobStatus.COMPLETED, Instant.now(),
+                Instant.now(), Instant.now(), 1, 1, 1, 0, 0, List.of(), null);
+
+        // Mock the ProductImportService methods
+        when(productImportService.createJob()).thenReturn(new ProductImportJobDTO("job-1", null,
+                ImportJobStatus.PENDING, Instant.now(), null, null, 0, 0, 0, 0, 0, List.of(), null));
+        when(productImportService.importProducts(eq("job-1"), eq(ProductFileFormat.CSV), any(),
+                eq(StandardCharsets.ISO_8859_1))).thenReturn(job);
+        when(productImportService.importProducts(eq("job-2"), any(), any(), any()))
+                .thenThrow(new ImportJobAlreadyStartedException("job-2"));
+        when(productImportService.getJob("job-1")).thenReturn(job);
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testCreateJobAsAdmin() throws Exception {
+        mockMvc.perform(post("/products/import/jobs"))
+                .andExpect(status().isCreated()) // The id of the job is known before its file is sent
+                .andExpect(header().string("Location", "/products/import/job-1"))
+                .andExpect(jsonPath("$.status").value("PENDING"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testCreateJobAsUser() throws Exception {
+        mockMvc.perform(post("/products/import/jobs"))
+                .andExpect(status().isForbidden()); // The user is prohibited from importing products
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testImportCsvAsAdmin() throws Exception {
+        mockMvc.perform(put("/products/import/job-1")
+                        .contentType("text/csv;charset=ISO-8859-1")
+                        .content("code,name\nP0001,Apple\n"))
+                .andExpect(status().isOk()) // The admin user is allowed to import products
+                .andExpect(jsonPath("$.created").value(1));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testImportIntoAStartedJobAsAdmin() throws Exception {
+        mockMvc.perform(put("/products/import/job-2")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"code\":\"P0001\",\"name\":\"Apple\"}\n"))
+                .andExpect(status().isConflict()); // A job receives a single file
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testImportUnsupportedFormatAsAdmin() throws Exception {
+        mockMvc.perform(put("/products/import/job-1")
+                        .contentType(MediaType.APPLICATION_XML)
+                        .content("<products/>"))
+                .andExpect(status().isUnsupportedMediaType());
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testImportAsUser() throws Exception {
+        mockMvc.perform(put("/products/import/job-1")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"code\":\"P0001\",\"name\":\"Apple\"}\n"))
+                .andExpect(status().isForbidden()); // The user is prohibited from importing products
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testFindJobAsUser() throws Exception {
+        mockMvc.perform(get("/products/import/job-1"))
+                .andExpect(status().isForbidden()); // Unlike the products, the import jobs are not public
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testFindJobAsAdmin() throws Exception {
+        mockMvc.perform(get("/products/import/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("job-1"));
+    }
+}
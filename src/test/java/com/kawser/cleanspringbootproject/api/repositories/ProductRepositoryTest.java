@@ -1,7 +1,188 @@
 package com.kawser.cleanspringbootproject.api.repositories;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import java.util.List;
+import java.util.Optional;
+
+@DataJpaTest
 public class ProductRepositoryTest {
 
-    // ProductRepository does not have any custom methods to test yet.
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product apple;
+    private Product banana;
+    private Product otherBanana;
+    private Product cherry;
+
+    @BeforeEach
+    public void setUp() {
+        entityManager.clear();
+
+        apple = entityManager.persist(product("P0001", "Apple"));
+        banana = entityManager.persist(product("P0002", "Banana"));
+        otherBanana = entityManager.persist(product("P0003", "Banana"));
+        cherry = entityManager.persist(product("P0004", "Cherry"));
+        entityManager.flush();
+    }
+
+    @Test
+    public void whenFindPageProjected_thenReturnDTOsAndTotal() {
+        Page<ProductDTO> page = productRepository.findPageProjectedBy(PageRequest.of(0, 3, Sort.by("code")));
+
+        assertThat(page.getContent()).containsExactly(
+                ProductDTO.from(apple), ProductDTO.from(banana), ProductDTO.from(otherBanana));
+        assertThat(page.getTotalElements()).isEqualTo(4);
+    }
+
+    @Test
+    public void whenFindSliceProjected_thenReturnDTOsAndHasNext() {
+        Slice<ProductDTO> slice = productRepository.findSliceProjectedBy(PageRequest.of(0, 3, Sort.by("code")));
+
+        assertThat(slice.getContent()).containsExactly(
+                ProductDTO.from(apple), ProductDTO.from(banana), ProductDTO.from(otherBanana));
+        assertThat(slice.hasNext()).isTrue();
+    }
+
+    @Test
+    public void whenFindLastSliceProjected_thenReturnNoNext() {
+        Slice<ProductDTO> slice = productRepository.findSliceProjectedBy(PageRequest.of(1, 3, Sort.by("code")));
+
+        assertThat(slice.getContent()).containsExactly(ProductDTO.from(cherry));
+        assertThat(slice.hasNext()).isFalse();
+    }
+
+    @Test
+    public void whenFindProjectedById_thenReturnDTO() {
+        Optional<ProductDTO> product = productRepository.findProjectedById(apple.getId());
+
+        assertThat(product).contains(ProductDTO.from(apple));
+    }
+
+    @Test
+    public void whenNotFindProjectedById_thenReturnEmpty() {
+        Optional<ProductDTO> product = productRepository.findProjectedById(-1L);
+
+        assertThat(product).isEmpty();
+    }
+
+    @Test
+    public void whenFindFirstPageAsc_thenReturnOrderedByNameAndId() {
+        List<Product> products = productRepository.findByOrderByNameAscIdAsc(Limit.of(3));
+
+        assertThat(products).containsExactly(apple, banana, otherBanana);
+    }
+
+    @Test
+    public void whenFindFirstPageDesc_thenReturnOrderedByNameAndIdDesc() {
+        List<Product> products = productRepository.findByOrderByNameDescIdDesc(Limit.of(2));
+
+        assertThat(products).containsExactly(cherry, otherBanana);
+    }
+
+    @Test
+    public void whenFindNextAsc_thenSeekAfterNameAndId() {
+        // Products with the same name are separated by the id tie-breaker
+        List<Product> products = productRepository.findNextByNameAndIdAsc(banana.getName(), banana.getId(), Limit.of(10));
+
+        assertThat(products).containsExactly(otherBanana, cherry);
+    }
+
+    @Test
+    public void whenFindNextDesc_thenSeekBeforeNameAndId() {
+        List<Product> products = productRepository.findNextByNameAndIdDesc(otherBanana.getName(), otherBanana.getId(), Limit.of(10));
+
+        assertThat(products).containsExactly(banana, apple);
+    }
+
+    @Test
+    public void whenFindNextAfterLastProduct_thenReturnEmpty() {
+        List<Product> products = productRepository.findNextByNameAndIdAsc(cherry.getName(), cherry.getId(), Limit.of(10));
+
+        assertThat(products).isEmpty();
+    }
+
+    @Test
+    public void whenFindProjectedByCodeInOrNameIn_thenReturnProductsWithEitherOne() {
+        List<ProductDTO> products = productRepository.findProjectedByCodeInOrNameIn(
+                List.of("P0001", "P0009"), List.of("Cherry", "Durian"));
+
+        assertThat(products).containsExactlyInAnyOrder(ProductDTO.from(apple), ProductDTO.from(cherry));
+    }
+
+    @Test
+    public void whenSearch_thenReturnBestRankedFirstThenById() {
+        entityManager.persist(product("P0005", "Banana Bread"));
+        entityManager.persist(product("P0006", "Dried Bananas"));
+        entityManager.flush();
+
+        List<ProductSearchRepository.SearchHit> hits = productRepository.search("Banana", 100, null, 10);
+
+        // The whole name, the start of the name, then inside the name; apple and cherry do not match
+        assertThat(hits).extracting(hit -> hit.result().product().name())
+                .containsExactly("Banana", "Banana", "Banana Bread", "Dried Bananas");
+        assertThat(hits).extracting(ProductSearchRepository.SearchHit::id).startsWith(banana.getId(), otherBanana.getId());
+        assertThat(hits.get(0).result().rank()).isGreaterThan(hits.get(2).result().rank());
+    }
+
+    @Test
+    public void whenSearchAfterPosition_thenSeekPastRankAndId() {
+        List<ProductSearchRepository.SearchHit> first = productRepository.search("description", 100, null, 2);
+        ProductSearchRepository.SearchHit last = first.get(1);
+
+        List<ProductSearchRepository.SearchHit> next = productRepository.search("description", 100,
+                new ProductSearchRepository.SearchPosition(last.result().rank(), last.id()), 10);
+
+        // Every product matches by its description with the same rank, so the pages follow the ids
+        assertThat(first).extracting(ProductSearchRepository.SearchHit::id).containsExactly(apple.getId(), banana.getId());
+        assertThat(next).extracting(ProductSearchRepository.SearchHit::id).containsExactly(otherBanana.getId(), cherry.getId());
+    }
+
+    @Test
+    public void whenSearchMatchesMoreThanMaxCandidates_thenReturnTheBestRankedOnes() {
+        entityManager.persist(product("P0005", "Rye Bread Crumbs"));
+        Product breadRolls = entityManager.persist(product("P0006", "Bread Rolls"));
+        Product bread = entityManager.persist(product("P0007", "Bread"));
+        entityManager.flush();
+
+        List<ProductSearchRepository.SearchHit> first = productRepository.search("Bread", 2, null, 1);
+        ProductSearchRepository.SearchHit last = first.get(0);
+        List<ProductSearchRepository.SearchHit> next = productRepository.search("Bread", 2,
+                new ProductSearchRepository.SearchPosition(last.result().rank(), last.id()), 10);
+
+        // The three products match, the best one having the highest id, and only the two best ranked ones are returned
+        assertThat(first).extracting(ProductSearchRepository.SearchHit::id).containsExactly(bread.getId());
+        assertThat(next).extracting(ProductSearchRepository.SearchHit::id).containsExactly(breadRolls.getId());
+    }
+
+    @Test
+    public void whenSearchWithWildcards_thenMatchThemLiterally() {
+        assertThat(productRepository.search("b%a", 100, null, 10)).isEmpty();
+        assertThat(productRepository.search("a_p", 100, null, 10)).isEmpty();
+    }
 
-}
\ No newline at end of file
+    private Product product(String code, String name) {
+        return Product.builder()
+                .code(code)
+                .name(name)
+                .price(10.0)
+                .description(name + " description")
+                .build();
+    }
+}
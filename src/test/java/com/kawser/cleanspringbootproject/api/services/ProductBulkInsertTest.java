@@ -0,0 +1,106 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.kawser.cleanspringbootproject.api.models.dto.BulkItemResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import com.kawser.cleanspringbootproject.config.sql.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Creates products in bulk against the database of the tests, recording the statements sent to it.
+ */
+@SpringBootTest
+public class ProductBulkInsertTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testProductsAreInsertedInJdbcBatches() {
+        List<ProductDTO> products = IntStream.range(0, 100)
+                .mapToObj(i -> new ProductDTO("B%04d".formatted(i), "Bulk Product " + i, 10.0, null))
+                .toList();
+
+        // Mocking the behavior of authorizationService
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+
+        // Creating the products
+        sqlStatementRecorder.clear();
+        BulkResultDTO result = productService.createProducts(products);
+
+        // Asserting that every product was created with its own id
+        assertThat(result.succeeded()).isEqualTo(100);
+        assertThat(result.items()).extracting(BulkItemResultDTO::id).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(productRepository.count()).isEqualTo(100);
+
+        // Asserting that the inserts were sent in two batches of 50, the size of hibernate.jdbc.batch_size
+        List<SqlStatementRecorder.SqlStatement> inserts = sqlStatementRecorder.getStatements().stream()
+                .filter(statement -> statement.sql().startsWith("insert into products"))
+                .toList();
+        assertThat(inserts).extracting(SqlStatementRecorder.SqlStatement::batchSize).containsExactly(50, 50);
+    }
+
+    @Test
+    public void testListingReadBeforeTheCommitIsNotCachedAsTheNewOne() throws Exception {
+        String[] sort = {"name", "asc"};
+
+        // Mocking the behavior of authorizationService
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+        productService.createProducts(List.of(new ProductDTO("B9000", "Bulk Product A", 10.0, null)));
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            // Creating a product in a transaction, and listing the products from another thread before the commit
+            transactionTemplate.executeWithoutResult(status -> {
+                productService.createProducts(List.of(new ProductDTO("B9001", "Bulk Product B", 10.0, null)));
+                try {
+                    Slice<ProductDTO> before = reader.submit(() -> productService.getSliceWithPagination(0, 10, sort)).get();
+                    assertThat(before.getContent()).hasSize(1);
+                } catch (InterruptedException | ExecutionException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        } finally {
+            reader.shutdown();
+        }
+
+        // Asserting that the listing cached before the commit is not returned after it
+        assertThat(productService.getSliceWithPagination(0, 10, sort).getContent())
+                .extracting(ProductDTO::code).containsExactly("B9000", "B9001");
+    }
+}
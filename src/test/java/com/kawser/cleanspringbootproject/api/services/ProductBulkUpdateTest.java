@@ -0,0 +1,138 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkChangeResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductBulkUpdateDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import com.kawser.cleanspringbootproject.config.sql.SqlStatementRecorder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+/**
+ * Updates and deletes products in bulk against the database of the tests, recording the statements sent to it.
+ */
+@SpringBootTest
+public class ProductBulkUpdateTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SqlStatementRecorder sqlStatementRecorder;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    public void setUp() {
+        List<Product> products = productRepository.saveAll(IntStream.range(0, 120)
+                .mapToObj(i -> new Product("U%04d".formatted(i), "Bulk Product " + i, 9.99, null))
+                .toList());
+        ids = new ArrayList<>(products.stream().map(Product::getId).toList());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testPricesAreMultipliedBySetBasedStatements() {
+        // Mocking the behavior of authorizationService
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+
+        // Raising the price of 100 products by 10%, with an id that does not exist
+        List<Long> updated = new ArrayList<>(ids.subList(0, 100));
+        updated.add(-1L);
+        sqlStatementRecorder.clear();
+        BulkChangeResultDTO result = productService.updateProducts(new ProductBulkUpdateDTO(updated, null, 1.1));
+        List<SqlStatementRecorder.SqlStatement> statements = sqlStatementRecorder.getStatements();
+
+        // Asserting the counts and the prices, rounded to two decimals
+        assertThat(result).isEqualTo(new BulkChangeResultDTO(101, 100));
+        List<Product> products = productRepository.findAllById(ids);
+        assertThat(products).filteredOn(product -> product.getId() <= ids.get(99))
+                .allSatisfy(product -> {
+                    assertThat(product.getPrice()).isEqualTo(10.99);
+                    assertThat(product.getUpdatedBy()).isEqualTo(1L);
+                });
+        assertThat(products).filteredOn(product -> product.getId() > ids.get(99))
+                .extracting(Product::getPrice).containsOnly(9.99);
+
+        // Asserting that no product was loaded, and the 101 ids were sent in statements of 50 ids
+        assertThat(statements).filteredOn(statement -> statement.sql().startsWith("select")).isEmpty();
+        assertThat(statements).filteredOn(statement -> statement.sql().startsWith("update products")).hasSize(3);
+    }
+
+    @Test
+    public void testProductsAreDeletedBySetBasedStatements() {
+        // Deleting 60 products
+        sqlStatementRecorder.clear();
+        BulkChangeResultDTO result = productService.deleteProducts(ids.subList(0, 60));
+
+        // Asserting the counts, and that the 60 ids were sent in two statements
+        assertThat(result).isEqualTo(new BulkChangeResultDTO(60, 60));
+        assertThat(productRepository.count()).isEqualTo(60);
+        assertThat(sqlStatementRecorder.getStatements())
+                .filteredOn(statement -> statement.sql().startsWith("delete from products")).hasSize(2);
+    }
+
+    @Test
+    public void testProductsReadBeforeTheCommitAreNotCached() throws Exception {
+        Long id = ids.get(0);
+        String[] sort = {"name", "asc"};
+
+        // Mocking the behavior of authorizationService
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            // Updating the price in a transaction, and reading the product and a listing from another thread
+            // before the commit, which caches them with the old price
+            transactionTemplate.executeWithoutResult(status -> {
+                productService.updateProducts(new ProductBulkUpdateDTO(List.of(id), 5.0, null));
+                try {
+                    assertThat(reader.submit(() -> productService.getProductById(id)).get())
+                            .hasValueSatisfying(product -> assertThat(product.price()).isEqualTo(9.99));
+                    assertThat(reader.submit(() -> productService.getSliceWithPagination(0, 1, sort)).get())
+                            .extracting(ProductDTO::price).containsExactly(9.99);
+                } catch (InterruptedException | ExecutionException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        } finally {
+            reader.shutdown();
+        }
+
+        // Asserting that the product and the listing cached before the commit are not returned after it
+        assertThat(productService.getProductById(id))
+                .hasValueSatisfying(product -> assertThat(product.price()).isEqualTo(5.0));
+        assertThat(productService.getSliceWithPagination(0, 1, sort)).extracting(ProductDTO::price).containsExactly(5.0);
+    }
+}
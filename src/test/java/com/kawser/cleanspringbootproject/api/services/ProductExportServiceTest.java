@@ -0,0 +1,146 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductExportService;
+import com.kawser.cleanspringbootproject.api.util.ProductImportReader;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Exports the products of the database of the tests, more of them than the fetch size of the cursor.
+ */
+@SpringBootTest
+public class ProductExportServiceTest {
+
+    private static final int PRODUCTS = ProductRepository.STREAM_FETCH_SIZE + 500;
+
+    @Autowired
+    private ProductExportService productExportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    private List<ProductDTO> products;
+
+    @BeforeEach
+    public void setUp() {
+        // The first product needs quotes in CSV, the second has neither price nor description
+        products = new ArrayList<>(List.of(
+                new ProductDTO("E0000", "Apple, \"Gala\"", 1.5, "Sweet\nand crisp"),
+                new ProductDTO("E0001", "Banana", null, null)));
+        IntStream.range(2, PRODUCTS)
+                .mapToObj(i -> new ProductDTO("E%04d".formatted(i), "Product " + i, i / 100.0, "Description " + i))
+                .forEach(products::add);
+
+        productRepository.saveAll(products.stream()
+                .map(product -> new Product(product.code(), product.name(), product.price(), product.description()))
+                .toList());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testExportCsvReadBackByTheImport() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Exporting the products
+        long written = productExportService.exportProducts(ProductFileFormat.CSV, output);
+
+        // Asserting the file lists every product in order, as the import reads it
+        assertThat(written).isEqualTo(PRODUCTS);
+        assertThat(output.toString(StandardCharsets.UTF_8))
+                .startsWith("code,name,price,description\r\nE0000,\"Apple, \"\"Gala\"\"\",1.5,\"Sweet\nand crisp\"\r\n"
+                        + "E0001,Banana,,\r\n");
+        assertThat(readBack(ProductFileFormat.CSV, output)).isEqualTo(products);
+    }
+
+    @Test
+    public void testExportNdjsonReadBackByTheImport() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Exporting the products
+        long written = productExportService.exportProducts(ProductFileFormat.NDJSON, output);
+
+        // Asserting the file has a JSON product per line, as the import reads it
+        assertThat(written).isEqualTo(PRODUCTS);
+        assertThat(output.toString(StandardCharsets.UTF_8).split("\n")).hasSize(PRODUCTS);
+        assertThat(readBack(ProductFileFormat.NDJSON, output)).isEqualTo(products);
+    }
+
+    @Test
+    public void testExportEmptyCatalog() throws IOException {
+        productRepository.deleteAll();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        // Asserting an empty CSV export still has its header
+        assertThat(productExportService.exportProducts(ProductFileFormat.CSV, output)).isZero();
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo("code,name,price,description\r\n");
+    }
+
+    @Test
+    public void testExportDetachesTheProducts() {
+        // Exporting inside a transaction of the test, which shares the persistence context of the export
+        int managed = transactionTemplate.execute(status -> {
+            try {
+                productExportService.exportProducts(ProductFileFormat.NDJSON, new ByteArrayOutputStream());
+            } catch (IOException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return entityManager.unwrap(Session.class).getStatistics().getEntityCount();
+        });
+
+        // Asserting no product was left in the persistence context
+        assertThat(managed).isZero();
+    }
+
+    private List<ProductDTO> readBack(ProductFileFormat format, ByteArrayOutputStream output) throws IOException {
+        List<ProductDTO> read = new ArrayList<>();
+        try (ProductImportReader reader = ProductImportReader.of(format,
+                new ByteArrayInputStream(output.toByteArray()), StandardCharsets.UTF_8, objectMapper)) {
+            ProductImportReader.ProductRecord record;
+            while ((record = reader.next()) != null) {
+                assertThat(record.error()).isNull();
+                read.add(record.product());
+            }
+        }
+        return read;
+    }
+}
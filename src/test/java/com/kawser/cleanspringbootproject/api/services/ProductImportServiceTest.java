@@ -0,0 +1,149 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.when;
+
+import com.kawser.cleanspringbootproject.api.models.BulkItemStatus;
+import com.kawser.cleanspringbootproject.api.models.ImportJobStatus;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductImportJobDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductImportService;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobAlreadyStartedException;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ImportJobNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Imports files of products against the database of the tests, written in chunks of 10 products.
+ */
+@SpringBootTest
+public class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testImportNdjsonInChunksAndReportRejectedRecords() {
+        // 25 products, the 5th is malformed, the 12th is invalid and the 23rd repeats the code of the 1st
+        String file = IntStream.rangeClosed(1, 25)
+                .mapToObj(i -> switch (i) {
+                    case 5 -> "{\"code\":";
+                    case 12 -> "{\"code\":\"X\",\"name\":\"Product 12\",\"price\":1.0}";
+                    case 23 -> "{\"code\":\"I0001\",\"name\":\"Product 23\",\"price\":1.0}";
+                    default -> "{\"code\":\"I%04d\",\"name\":\"Product %d\",\"price\":1.0}".formatted(i, i);
+                })
+                .collect(Collectors.joining("\n"));
+
+        // Mocking the behavior of authorizationService
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+
+        // Creating the job, known before its file is sent, and importing the file
+        ProductImportJobDTO pending = productImportService.createJob();
+        assertThat(productImportService.getJob(pending.id()).status()).isEqualTo(ImportJobStatus.PENDING);
+        ProductImportJobDTO job = productImportService.importProducts(pending.id(), ProductFileFormat.NDJSON,
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8);
+
+        // Asserting the counters and the rejected records of the job
+        assertThat(job.status()).isEqualTo(ImportJobStatus.COMPLETED);
+        assertThat(job.read()).isEqualTo(25);
+        assertThat(job.committed()).isEqualTo(25);
+        assertThat(job.created()).isEqualTo(22);
+        assertThat(job.invalid()).isEqualTo(2);
+        assertThat(job.duplicate()).isEqualTo(1);
+        assertThat(job.errors()).extracting(ProductImportJobDTO.ImportErrorDTO::record).containsExactly(5L, 12L, 23L);
+        assertThat(job.errors().get(2).status()).isEqualTo(BulkItemStatus.DUPLICATE);
+        assertThat(productRepository.count()).isEqualTo(22);
+
+        // Asserting that the job is kept to report its progress
+        assertThat(productImportService.getJob(job.id())).isEqualTo(job);
+    }
+
+    @Test
+    public void testImportCsvWithoutHeaderFails() {
+        // Importing a file whose header does not name the code and name columns
+        ProductImportJobDTO job = productImportService.importProducts(productImportService.createJob().id(),
+                ProductFileFormat.CSV, new ByteArrayInputStream("I0001,Product 1\n".getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8);
+
+        // Asserting that the job failed without creating any product
+        assertThat(job.status()).isEqualTo(ImportJobStatus.FAILED);
+        assertThat(job.failure()).isEqualTo("The CSV header must have the columns code and name");
+        assertThat(job.finishedAt()).isNotNull();
+        assertThat(productRepository.count()).isZero();
+    }
+
+    @Test
+    public void testImportIntoAStartedJob() {
+        // Importing a file into a job that already received one and expecting an exception
+        String jobId = productImportService.createJob().id();
+        productImportService.importProducts(jobId, ProductFileFormat.CSV, InputStream.nullInputStream(),
+                StandardCharsets.UTF_8);
+        assertThrows(ImportJobAlreadyStartedException.class, () -> productImportService.importProducts(jobId,
+                ProductFileFormat.CSV, InputStream.nullInputStream(), StandardCharsets.UTF_8));
+
+        // Importing a file into a job that does not exist and expecting an exception
+        assertThrows(ImportJobNotFoundException.class, () -> productImportService.importProducts("unknown",
+                ProductFileFormat.CSV, InputStream.nullInputStream(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testRunningJobIsNotDropped() throws Exception {
+        // Importing a file whose upload has not ended
+        String running = productImportService.createJob().id();
+        PipedOutputStream upload = new PipedOutputStream();
+        PipedInputStream input = new PipedInputStream(upload);
+        CompletableFuture<ProductImportJobDTO> result = CompletableFuture.supplyAsync(() ->
+                productImportService.importProducts(running, ProductFileFormat.NDJSON, input, StandardCharsets.UTF_8));
+        while (productImportService.getJob(running).status() == ImportJobStatus.PENDING) {
+            Thread.sleep(10);
+        }
+
+        // Running more jobs than the 10 kept
+        for (int i = 0; i < 12; i++) {
+            productImportService.importProducts(productImportService.createJob().id(), ProductFileFormat.NDJSON,
+                    InputStream.nullInputStream(), StandardCharsets.UTF_8);
+        }
+
+        // Asserting that the running job, the oldest one, is still reported with the 9 most recent ones
+        assertThat(productImportService.getJob(running).status()).isEqualTo(ImportJobStatus.RUNNING);
+        assertThat(productImportService.getJobs()).hasSize(10)
+                .last().extracting(ProductImportJobDTO::id).isEqualTo(running);
+
+        // Ending the upload
+        upload.close();
+        assertThat(result.get(10, TimeUnit.SECONDS).status()).isEqualTo(ImportJobStatus.COMPLETED);
+    }
+
+    @Test
+    public void testGetUnknownJob() {
+        // Getting a job that does not exist and expecting an exception
+        assertThrows(ImportJobNotFoundException.class, () -> productImportService.getJob("unknown"));
+    }
+}
@@ -0,0 +1,102 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
+import com.kawser.cleanspringbootproject.api.util.CursorUtil;
+import com.kawser.cleanspringbootproject.api.util.ProductListingVersion;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lists the products through the cache of the listings, against the database of the tests.
+ */
+@SpringBootTest
+public class ProductListingCacheTest {
+
+    private static final String[] SORT = {"code", "asc"};
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductListingVersion productListingVersion;
+
+    @Autowired
+    private CursorUtil cursorUtil;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @BeforeEach
+    public void setUp() {
+        productRepository.saveAll(IntStream.range(0, 30)
+                .mapToObj(i -> new Product("L%04d".formatted(i), "Listed Product " + i, 9.99, null))
+                .toList());
+        // The products are saved without the service, so the listings cached by the other tests are dropped here
+        productListingVersion.increment();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+        productListingVersion.increment();
+    }
+
+    @Test
+    public void testPagesWithTheSameDigitsAreCachedApart() {
+        // Listing page 1 of size 11 and page 11 of size 1, whose numbers read the same once put together
+        List<String> first = codes(productService.getWithPagination(1, 11, SORT));
+        List<String> second = codes(productService.getWithPagination(11, 1, SORT));
+
+        // Each request gets its own page instead of the one cached for the other
+        assertThat(first).hasSize(11).startsWith("L0011");
+        assertThat(second).containsExactly("L0011");
+    }
+
+    @Test
+    public void testSlicesWithTheSameDigitsAreCachedApart() {
+        // Listing slice 1 of size 11 and slice 11 of size 1, whose numbers read the same once put together
+        List<String> first = codes(productService.getSliceWithPagination(1, 11, SORT));
+        List<String> second = codes(productService.getSliceWithPagination(11, 1, SORT));
+
+        // Each request gets its own slice instead of the one cached for the other
+        assertThat(first).hasSize(11).startsWith("L0011");
+        assertThat(second).containsExactly("L0011");
+    }
+
+    @Test
+    public void testCursorsEndingWithADigitAreCachedApart() {
+        // A valid cursor, and the same one with a digit appended, which still decodes to a position
+        String cursor = cursorUtil.encode("Listed Product", 0L);
+        String longerCursor = cursor + "1";
+
+        // Listing 12 products after the first cursor and 2 after the second, whose parts read the same once put together
+        CursorPageDTO<ProductDTO> first = productService.getWithCursor(cursor, 12, "asc");
+        CursorPageDTO<ProductDTO> second = productService.getWithCursor(longerCursor, 2, "asc");
+
+        // Each request gets its own page instead of the one cached for the other
+        assertThat(first.content()).hasSize(12);
+        assertThat(second.content()).hasSize(2);
+    }
+
+    private static List<String> codes(Iterable<ProductDTO> products) {
+        return StreamSupport.stream(products.spliterator(), false).map(ProductDTO::code).toList();
+    }
+}
@@ -0,0 +1,134 @@
+package com.kawser.cleanspringbootproject.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Searches the products against a PostgreSQL database migrated by Flyway, whose full-text search the H2 database of
+ * the other tests does not have. It is skipped when Docker is not available.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+public class ProductSearchPostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.datasource.driverClassName", postgres::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        // The schema is the one of the migrations, as in production
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private AuthorizationService authorizationService;
+
+    @AfterEach
+    public void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    public void testSearchIndexesAreBuilt() {
+        // The indexes of V7 are built concurrently, outside of a transaction, and must be valid
+        List<String> indexes = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid
+                WHERE i.indisvalid AND c.relname LIKE 'idx_products_%'
+                """, String.class);
+
+        assertThat(indexes).contains("idx_products_search_vector", "idx_products_name_trgm",
+                "idx_products_description_trgm");
+    }
+
+    @Test
+    public void testSearchRanksTheNameBeforeTheDescription() {
+        productRepository.saveAll(List.of(
+                new Product("F0001", "Fruit Salad", 4.0, "Apple, banana and cherry"),
+                new Product("F0002", "Banana Bread", 3.0, "Baked with ripe bananas"),
+                new Product("F0003", "Banana", 1.0, null),
+                new Product("F0004", "Apple", 1.0, null)));
+
+        CursorPageDTO<ProductSearchResultDTO> page = productService.searchProducts("banana", null, 10);
+
+        // The whole name first, then the name with the description, then the description only; the apple does not match
+        assertThat(page.content()).extracting(result -> result.product().name())
+                .containsExactly("Banana", "Banana Bread", "Fruit Salad");
+        assertThat(page.content()).extracting(ProductSearchResultDTO::rank)
+                .isSortedAccordingTo((first, second) -> Float.compare(second, first));
+        assertThat(page.hasNext()).isFalse();
+    }
+
+    @Test
+    public void testSearchContinuesAcrossEqualRanks() {
+        productRepository.saveAll(IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new Product("S%04d".formatted(i), "Banana Split", 5.0, null))
+                .toList());
+
+        // Walking the pages of products with the same rank, which the cursor holds as a float
+        List<ProductSearchResultDTO> results = new ArrayList<>();
+        CursorPageDTO<ProductSearchResultDTO> page = productService.searchProducts("split", null, 2);
+        results.addAll(page.content());
+        int pages = 1;
+        while (page.hasNext()) {
+            page = productService.searchProducts("split", page.nextCursor(), 2);
+            results.addAll(page.content());
+            pages++;
+        }
+
+        // Asserting that every product is returned once, the ties broken by id
+        assertThat(pages).isEqualTo(3);
+        assertThat(results).extracting(ProductSearchResultDTO::rank).containsOnly(results.get(0).rank());
+        assertThat(results).extracting(result -> result.product().code())
+                .containsExactly("S0001", "S0002", "S0003", "S0004", "S0005");
+    }
+
+    @Test
+    public void testSearchReturnsTheBestMatchesOfABroadQuery() {
+        // More matching products than max-candidates (100 in the tests), the best one being saved last
+        List<Product> products = new ArrayList<>(IntStream.rangeClosed(1, 150)
+                .mapToObj(i -> new Product("D%04d".formatted(i), "Dessert %d".formatted(i), 5.0, "With a banana"))
+                .toList());
+        products.add(new Product("B0001", "Banana", 1.0, null));
+        productRepository.saveAll(products);
+
+        CursorPageDTO<ProductSearchResultDTO> page = productService.searchProducts("banana", null, 10);
+
+        // The best match is found although its id is the highest
+        assertThat(page.content().get(0).product().code()).isEqualTo("B0001");
+    }
+}
@@ -1,26 +1,58 @@
 package com.kawser.cleanspringbootproject.api.services;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import com.kawser.cleanspringbootproject.api.models.BulkItemStatus;
 import com.kawser.cleanspringbootproject.api.models.Product;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkChangeResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.BulkResultDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.CursorPageDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductBulkUpdateDTO;
 import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductSearchResultDTO;
 import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import com.kawser.cleanspringbootproject.api.repositories.ProductSearchRepository;
 import com.kawser.cleanspringbootproject.api.services.impl.ProductService;
+import com.kawser.cleanspringbootproject.api.util.CursorUtil;
+import com.kawser.cleanspringbootproject.exception.api.domain.common.ModelValidationException;
+import com.kawser.cleanspringbootproject.exception.api.domain.pagination.InvalidCursorException;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.BulkSizeExceededException;
 import com.kawser.cleanspringbootproject.exception.api.domain.product.ProductNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 
 @SpringBootTest
@@ -36,6 +68,18 @@ public class ProductServiceTest {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private CursorUtil cursorUtil;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void init() {
+        // Clearing the caches, so a result cached by a previous test is not returned
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
     @Test
     public void testCreateProduct() {
         ProductDTO productDTO = new ProductDTO(
@@ -59,33 +103,85 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).save(any(Product.class));
     }
 
+    @Test
+    public void testCreateProductsReportsEachProduct() {
+        List<ProductDTO> products = List.of(
+                new ProductDTO("P0001", "New Product", 10.0, "Test Product Data"),
+                new ProductDTO("X", "Invalid Product", 10.0, "Test Product Data"),
+                new ProductDTO("P0002", "Other Product", 10.0, "Test Product Data"),
+                new ProductDTO("P0003", "New Product", 10.0, "Test Product Data"));
+
+        // Mocking the behavior of productRepository and authorizationService, P0002 is already saved
+        when(productRepository.findProjectedByCodeInOrNameIn(any(), any()))
+                .thenReturn(List.of(new ProductDTO("P0002", "Saved Product", 5.0, null)));
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+        when(productRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Product> saved = invocation.getArgument(0);
+            saved.forEach(product -> product.setId(100L));
+            return saved;
+        });
+
+        // Creating the products
+        BulkResultDTO result = productService.createProducts(products);
+
+        // Asserting the result of each product, only the first one is created
+        assertEquals(1, result.succeeded());
+        assertEquals(3, result.failed());
+        assertEquals(BulkItemStatus.CREATED, result.items().get(0).status());
+        assertEquals(100L, result.items().get(0).id());
+        assertEquals(BulkItemStatus.INVALID, result.items().get(1).status());
+        assertEquals("Code must be between 4 and 8 characters long", result.items().get(1).message());
+        assertEquals(BulkItemStatus.DUPLICATE, result.items().get(2).status());
+        assertEquals("Product with code P0002 already exists", result.items().get(2).message());
+        assertEquals(BulkItemStatus.DUPLICATE, result.items().get(3).status());
+        assertEquals("Product with name New Product already exists", result.items().get(3).message());
+
+        // Verifying that the uniqueness was checked with a single query, and not product by product
+        verify(productRepository, times(1)).findProjectedByCodeInOrNameIn(any(), any());
+        verify(productRepository, never()).existsByCode(any());
+        verify(productRepository, never()).existsByName(any());
+    }
+
+    @Test
+    public void testCreateProductsOverMaxSize() {
+        List<ProductDTO> products = IntStream.range(0, 101)
+                .mapToObj(i -> new ProductDTO("P%04d".formatted(i), "Product " + i, 10.0, null))
+                .toList();
+
+        // Creating more products than api.products.bulk.max-size and expecting an exception
+        assertThrows(BulkSizeExceededException.class, () -> productService.createProducts(products));
+        verify(productRepository, never()).saveAll(any());
+    }
+
     @Test
     public void testGetProductWhenProductExists() {
         Long productId = 1L;
-        Product product = new Product();
+        ProductDTO product = new ProductDTO("P0001", "Test Product", 10.0, "Test Product Data");
 
-        // Mocking the findById method to return a product
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        // Mocking the findProjectedById method to return a product
+        when(productRepository.findProjectedById(productId)).thenReturn(Optional.of(product));
 
         // Getting the product
-        productService.getProductById(productId);
+        Optional<ProductDTO> result = productService.getProductById(productId);
 
-        // Verifying if the findById method was called once
-        verify(productRepository, times(1)).findById(productId);
+        // Verifying if the projection was used instead of loading the entity
+        assertEquals(Optional.of(product), result);
+        verify(productRepository, times(1)).findProjectedById(productId);
+        verify(productRepository, never()).findById(productId);
     }
 
     @Test
     public void testGetProductWhenProductDoesNotExist() {
         Long productId = 1L;
 
-        // Mocking the findById method to return an empty optional
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        // Mocking the findProjectedById method to return an empty optional
+        when(productRepository.findProjectedById(productId)).thenReturn(Optional.empty());
 
         // Getting the product and expecting an exception
         assertThrows(ProductNotFoundException.class, () -> productService.getProductById(productId));
 
-        // Verifying if the findById method was called once
-        verify(productRepository, times(1)).findById(productId);
+        // Verifying if the findProjectedById method was called once
+        verify(productRepository, times(1)).findProjectedById(productId);
     }
 
     @Test
@@ -157,4 +253,197 @@ public class ProductServiceTest {
         verify(productRepository, times(1)).findById(productId);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testUpdateProductEvictsOnlyThisProductAndListings() {
+        Long productId = 7L;
+        Long otherProductId = 8L;
+        ProductDTO productDTO = new ProductDTO("P0007", "Test Product", 10.0, "Test Product Data");
+        Pageable pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "name"));
+
+        // Mocking the behavior of the methods that will be called in the service methods
+        when(productRepository.findProjectedById(productId)).thenReturn(Optional.of(productDTO));
+        when(productRepository.findProjectedById(otherProductId)).thenReturn(Optional.of(productDTO));
+        when(productRepository.findSliceProjectedBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(productDTO), pageRequest, false));
+        when(productRepository.findById(productId)).thenReturn(Optional.of(new Product()));
+
+        // Caching both products and a listing, then updating one product
+        productService.getProductById(productId);
+        productService.getProductById(otherProductId);
+        productService.getSliceWithPagination(0, 1, new String[]{"name", "asc"});
+        productService.updateProduct(productId, productDTO);
+
+        // Reading them again
+        productService.getProductById(productId);
+        productService.getProductById(otherProductId);
+        productService.getSliceWithPagination(0, 1, new String[]{"name", "asc"});
+
+        // Verifying that only the updated product and the listing were queried again
+        verify(productRepository, times(2)).findProjectedById(productId);
+        verify(productRepository, times(1)).findProjectedById(otherProductId);
+        verify(productRepository, times(2)).findSliceProjectedBy(pageRequest);
+    }
+
+    @Test
+    public void testGetSliceWithPagination() {
+        ProductDTO product = new ProductDTO("P0001", "Apple", 1.0, null);
+        Pageable pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "name"));
+
+        // Mocking the repository to return a slice with a next page
+        when(productRepository.findSliceProjectedBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(product), pageRequest, true));
+
+        // Getting the slice
+        Slice<ProductDTO> slice = productService.getSliceWithPagination(0, 1, new String[]{"name", "asc"});
+
+        // Asserting that the slice was mapped and that the count query was never issued
+        assertEquals("Apple", slice.getContent().get(0).name());
+        assertTrue(slice.hasNext());
+        verify(productRepository, never()).findPageProjectedBy(any(Pageable.class));
+        verify(productRepository, never()).count();
+    }
+
+    @Test
+    public void testGetWithCursorFirstPageHasNext() {
+        Product first = Product.builder().code("P0001").name("Apple").price(1.0).build();
+        first.setId(1L);
+        Product second = Product.builder().code("P0002").name("Banana").price(2.0).build();
+        second.setId(2L);
+        Product third = Product.builder().code("P0003").name("Cherry").price(3.0).build();
+        third.setId(3L);
+
+        // Mocking the repository to return one row more than the page size
+        when(productRepository.findByOrderByNameAscIdAsc(Limit.of(3))).thenReturn(List.of(first, second, third));
+
+        // Getting the first page
+        CursorPageDTO<ProductDTO> page = productService.getWithCursor("", 2, "asc");
+
+        // Asserting that the extra row was dropped and the cursor points to the last row of the page
+        assertEquals(2, page.content().size());
+        assertTrue(page.hasNext());
+        assertEquals(new CursorUtil.Cursor("Banana", 2L), cursorUtil.decode(page.nextCursor()));
+    }
+
+    @Test
+    public void testGetWithCursorLastPage() {
+        Product last = Product.builder().code("P0003").name("Cherry").price(3.0).build();
+        last.setId(3L);
+        String cursor = cursorUtil.encode("Banana", 2L);
+
+        // Mocking the repository to seek after the position encoded in the cursor
+        when(productRepository.findNextByNameAndIdAsc("Banana", 2L, Limit.of(3))).thenReturn(List.of(last));
+
+        // Getting the page after the cursor
+        CursorPageDTO<ProductDTO> page = productService.getWithCursor(cursor, 2, "asc");
+
+        // Asserting that there is no next page
+        assertEquals(1, page.content().size());
+        assertFalse(page.hasNext());
+        assertNull(page.nextCursor());
+        verify(productRepository, times(1)).findNextByNameAndIdAsc("Banana", 2L, Limit.of(3));
+    }
+
+    @Test
+    public void testGetWithInvalidCursor() {
+        // Getting a page with a malformed cursor and expecting an exception
+        assertThrows(InvalidCursorException.class, () -> productService.getWithCursor("not-a-cursor", 10, "asc"));
+    }
+
+    @Test
+    public void testUpdateProductsSplitsTheIdsInStatements() {
+        // 120 distinct ids, the first ten of them repeated
+        List<Long> ids = Stream.concat(LongStream.rangeClosed(1, 120).boxed(), LongStream.rangeClosed(1, 10).boxed())
+                .toList();
+
+        // Mocking the behavior of productRepository and authorizationService, the ids 111 to 120 do not exist
+        when(authorizationService.getCurrentUserId()).thenReturn(1L);
+        when(productRepository.updatePriceByIdIn(anyList(), eq(9.99), eq(1L), any()))
+                .thenAnswer(invocation -> (int) ((List<Long>) invocation.getArgument(0)).stream()
+                        .filter(id -> id <= 110)
+                        .count());
+
+        // Updating the products
+        BulkChangeResultDTO result = productService.updateProducts(new ProductBulkUpdateDTO(ids, 9.99, null));
+
+        // Asserting the counts, and that the ids were sent in statements of api.products.bulk.ids-per-statement ids
+        assertEquals(120, result.requested());
+        assertEquals(110, result.affected());
+        ArgumentCaptor<List<Long>> statements = ArgumentCaptor.forClass(List.class);
+        verify(productRepository, times(3)).updatePriceByIdIn(statements.capture(), eq(9.99), eq(1L), any());
+        assertEquals(List.of(50, 50, 20), statements.getAllValues().stream().map(List::size).toList());
+        verify(productRepository, never()).multiplyPriceByIdIn(anyList(), any(), anyLong(), any());
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    public void testDeleteProductsEvictsTheCachedProductsOnce() {
+        ProductDTO productDTO = new ProductDTO("P0007", "Test Product", 10.0, "Test Product Data");
+        Pageable pageRequest = PageRequest.of(0, 1, Sort.by(Sort.Direction.ASC, "name"));
+
+        // Mocking the behavior of the methods that will be called in the service methods
+        when(productRepository.findProjectedById(any())).thenReturn(Optional.of(productDTO));
+        when(productRepository.findSliceProjectedBy(pageRequest)).thenReturn(new SliceImpl<>(List.of(productDTO), pageRequest, false));
+        when(productRepository.deleteByIdIn(anyList())).thenReturn(2);
+
+        // Caching two products and a listing, then deleting them in bulk
+        productService.getProductById(7L);
+        productService.getProductById(8L);
+        productService.getSliceWithPagination(0, 1, new String[]{"name", "asc"});
+        BulkChangeResultDTO result = productService.deleteProducts(new ArrayList<>(List.of(7L, 8L)));
+
+        // Reading them again
+        productService.getProductById(7L);
+        productService.getProductById(8L);
+        productService.getSliceWithPagination(0, 1, new String[]{"name", "asc"});
+
+        // Verifying that the products were deleted by one statement, and were queried again with the listing
+        assertEquals(2, result.affected());
+        verify(productRepository, times(1)).deleteByIdIn(List.of(7L, 8L));
+        verify(productRepository, times(2)).findProjectedById(7L);
+        verify(productRepository, times(2)).findProjectedById(8L);
+        verify(productRepository, times(2)).findSliceProjectedBy(pageRequest);
+    }
+
+    @Test
+    public void testDeleteProductsOverMaxIds() {
+        List<Long> ids = LongStream.rangeClosed(1, 201).boxed().toList();
+
+        // Deleting more products than api.products.bulk.max-ids and expecting an exception
+        assertThrows(BulkSizeExceededException.class, () -> productService.deleteProducts(ids));
+        verify(productRepository, never()).deleteByIdIn(anyList());
+    }
+
+    @Test
+    public void testSearchProductsContinuesAfterTheRankAndIdOfTheLastProduct() {
+        ProductSearchRepository.SearchHit first = new ProductSearchRepository.SearchHit(3L,
+                new ProductSearchResultDTO(new ProductDTO("P0003", "Banana", 1.0, null), 0.75f));
+        ProductSearchRepository.SearchHit second = new ProductSearchRepository.SearchHit(1L,
+                new ProductSearchResultDTO(new ProductDTO("P0001", "Banana Bread", 2.0, null), 0.5f));
+        ProductSearchRepository.SearchHit third = new ProductSearchRepository.SearchHit(2L,
+                new ProductSearchResultDTO(new ProductDTO("P0002", "Dried Bananas", 3.0, null), 0.5f));
+
+        // Mocking the repository to return one product more than the page size, then the product after the page
+        when(productRepository.search("banana", 100, null, 3)).thenReturn(List.of(first, second, third));
+        when(productRepository.search("banana", 100, new ProductSearchRepository.SearchPosition(0.5f, 1L), 3))
+                .thenReturn(List.of(third));
+
+        // Searching the first page, trimming the query, then the page after its cursor
+        CursorPageDTO<ProductSearchResultDTO> page = productService.searchProducts(" banana ", null, 2);
+        CursorPageDTO<ProductSearchResultDTO> next = productService.searchProducts("banana", page.nextCursor(), 2);
+
+        // Asserting that the pages follow each other
+        assertEquals(List.of(first.result(), second.result()), page.content());
+        assertTrue(page.hasNext());
+        assertEquals(List.of(third.result()), next.content());
+        assertFalse(next.hasNext());
+        assertNull(next.nextCursor());
+    }
+
+    @Test
+    public void testSearchProductsWithInvalidQueryOrCursor() {
+        // Searching with a query too short and with a cursor that does not hold a rank, and expecting exceptions
+        assertThrows(ModelValidationException.class, () -> productService.searchProducts(" ab ", null, 10));
+        assertThrows(InvalidCursorException.class,
+                () -> productService.searchProducts("banana", cursorUtil.encode("Banana", 2L), 10));
+        verify(productRepository, never()).search(any(), anyInt(), any(), anyInt());
+    }
+
+}
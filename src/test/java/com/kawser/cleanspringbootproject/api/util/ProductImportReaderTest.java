@@ -0,0 +1,80 @@
+package com.kawser.cleanspringbootproject.api.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kawser.cleanspringbootproject.api.models.ProductFileFormat;
+import com.kawser.cleanspringbootproject.api.models.dto.ProductDTO;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ProductImportReaderTest {
+
+    @Test
+    public void testReadNdjsonSkipsBlankLinesAndReportsMalformedOnes() throws IOException {
+        String file = """
+                {"code":"P0001","name":"Apple","price":1.5,"description":"Red"}
+
+                {"code":"P0002","name":
+                {"code":"P0003","name":"Cherry"}
+                """;
+
+        List<ProductImportReader.ProductRecord> records = readAll(ProductFileFormat.NDJSON, file);
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0)).isEqualTo(new ProductImportReader.ProductRecord(1,
+                new ProductDTO("P0001", "Apple", 1.5, "Red"), null));
+        assertThat(records.get(1).number()).isEqualTo(2);
+        assertThat(records.get(1).product()).isNull();
+        assertThat(records.get(1).error()).startsWith("Invalid JSON");
+        assertThat(records.get(2).product()).isEqualTo(new ProductDTO("P0003", "Cherry", null, null));
+    }
+
+    @Test
+    public void testReadCsvWithQuotedFieldsAndColumnsInAnyOrder() throws IOException {
+        String file = "Name,code,description,price\r\n"
+                + "Apple,P0001,\"Red, sweet\",1.5\r\n"
+                + "\"Banana \"\"Cavendish\"\"\",P0002,\"Yellow\nand long\",\r\n"
+                + "\r\n"
+                + "Cherry,P0003,,abc\r\n"
+                + "Durian\r\n";
+
+        List<ProductImportReader.ProductRecord> records = readAll(ProductFileFormat.CSV, file);
+
+        assertThat(records).hasSize(4);
+        assertThat(records.get(0).product()).isEqualTo(new ProductDTO("P0001", "Apple", 1.5, "Red, sweet"));
+        assertThat(records.get(1).product()).isEqualTo(new ProductDTO("P0002", "Banana \"Cavendish\"", null, "Yellow\nand long"));
+        assertThat(records.get(2).error()).isEqualTo("Price is not a number: abc");
+        assertThat(records.get(3).error()).isEqualTo("Expected at least 2 columns but found 1");
+    }
+
+    @Test
+    public void testReadCsvWithoutRequiredColumns() {
+        // Reading a file whose header has no code column and expecting an exception
+        assertThrows(IOException.class, () -> readAll(ProductFileFormat.CSV, "name,price\nApple,1.5\n"));
+    }
+
+    @Test
+    public void testReadCsvWithUnclosedQuote() {
+        // Reading a file whose last field is never closed and expecting an exception
+        assertThrows(IOException.class, () -> readAll(ProductFileFormat.CSV, "code,name\nP0001,\"Apple\n"));
+    }
+
+    private List<ProductImportReader.ProductRecord> readAll(ProductFileFormat format, String file) throws IOException {
+        List<ProductImportReader.ProductRecord> records = new ArrayList<>();
+        try (ProductImportReader reader = ProductImportReader.of(format,
+                new ByteArrayInputStream(file.getBytes(StandardCharsets.UTF_8)), StandardCharsets.UTF_8, new ObjectMapper())) {
+            ProductImportReader.ProductRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,87 @@
+package com.kawser.cleanspringbootproject.auth.config.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+public class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withUser("sender", "password"));
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private PooledJavaMailSender mailSender;
+
+    @AfterEach
+    public void destroy() {
+        mailSender.destroy();
+    }
+
+    @Test
+    public void testConnectionIsReusedBetweenSends() throws MessagingException {
+        mailSender = createMailSender(Duration.ofMinutes(1));
+
+        // Sending three emails one by one and then two in a batch
+        mailSender.send(createMessage("first@test.com"));
+        mailSender.send(createMessage("second@test.com"));
+        mailSender.send(createMessage("third@test.com"));
+        mailSender.send(createMessage("fourth@test.com"), createMessage("fifth@test.com"));
+
+        // Verifying that all emails were received over a single authenticated connection
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(connections.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testIdleConnectionIsClosedAfterTimeout() throws MessagingException {
+        mailSender = createMailSender(Duration.ZERO);
+
+        // Sending two emails with a connection that expires as soon as it is idle
+        mailSender.send(createMessage("first@test.com"));
+        mailSender.send(createMessage("second@test.com"));
+
+        // Verifying that a new connection was opened for the second email
+        assertThat(greenMail.getReceivedMessages()).hasSize(2);
+        assertThat(connections.get()).isEqualTo(2);
+    }
+
+    private PooledJavaMailSender createMailSender(Duration idleTimeout) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(2, idleTimeout) {
+            @Override
+            protected Transport connectTransport() throws MessagingException {
+                connections.incrementAndGet();
+                return super.connectTransport();
+            }
+        };
+        sender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        sender.setPort(ServerSetupTest.SMTP.getPort());
+        sender.setUsername("sender");
+        sender.setPassword("password");
+        sender.getJavaMailProperties().put("mail.smtp.auth", "true");
+        return sender;
+    }
+
+    private MimeMessage createMessage(String to) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message);
+        helper.setFrom("sender@test.com");
+        helper.setTo(to);
+        helper.setSubject("Test");
+        helper.setText("Test");
+        return message;
+    }
+}
@@ -0,0 +1,47 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ActuatorSecurityTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testHealthAsNotAuthenticated() throws Exception {
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk()); // The guest user is allowed to check the health of the application
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    public void testActuatorEndpointsAsUser() throws Exception {
+        // The user is prohibited from reading the statements and metrics of the application
+        mockMvc.perform(get("/actuator/sql"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    public void testActuatorEndpointsAsAdmin() throws Exception {
+        // The admin user is allowed to read the statements and metrics of the application
+        mockMvc.perform(get("/actuator/sql"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isOk());
+    }
+}
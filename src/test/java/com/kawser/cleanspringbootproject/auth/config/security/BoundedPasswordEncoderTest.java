@@ -0,0 +1,119 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.PasswordHashingRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+public class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @AfterEach
+    public void destroy() {
+        if (passwordEncoder != null) {
+            passwordEncoder.destroy();
+        }
+    }
+
+    @Test
+    public void testPasswordsAreHashedOnThePoolAndTimed() {
+        passwordEncoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, 1, meterRegistry);
+
+        // Hashing a password and matching it
+        String encoded = passwordEncoder.encode("PasswordA12@");
+
+        // Verifying that the hash is valid and that the queue and execution times were recorded
+        assertThat(passwordEncoder.matches("PasswordA12@", encoded)).isTrue();
+        assertThat(passwordEncoder.matches("WrongPassword", encoded)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hashing.execution").tag("operation", "encode").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("auth.password.hashing.execution").tag("operation", "matches").timer().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("auth.password.hashing.queue").tag("operation", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testPasswordIsRejectedWhenTheQueueIsFull() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.encode(rawPassword);
+            }
+        };
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder, 1, 1, meterRegistry);
+
+        // Taking the only thread of the pool and the only place of the queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        awaitQuietly(started);
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("second"));
+        while (meterRegistry.get("executor.queued").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // Verifying that the next password is rejected without waiting
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.encode("third"));
+        assertThat(meterRegistry.get("auth.password.hashing.rejected").counter().count()).isEqualTo(1);
+
+        // Verifying that the accepted passwords are still hashed
+        release.countDown();
+        assertThat(running.join()).isNotBlank();
+        assertThat(queued.join()).isNotBlank();
+    }
+
+    @Test
+    public void testPasswordIsRejectedWhenNoneMayWait() {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blockingEncoder = new BCryptPasswordEncoder(4) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                awaitQuietly(release);
+                return super.encode(rawPassword);
+            }
+        };
+        passwordEncoder = new BoundedPasswordEncoder(blockingEncoder, 1, 0, meterRegistry);
+
+        // Taking the only thread of the pool, with no queue
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("first"));
+        awaitQuietly(started);
+
+        // Verifying that the next password is rejected without waiting, and that the accepted one is still hashed
+        assertThrows(PasswordHashingRejectedException.class, () -> passwordEncoder.encode("second"));
+        release.countDown();
+        assertThat(running.join()).isNotBlank();
+    }
+
+    @Test
+    public void testNegativeQueueCapacityIsRejected() {
+        // Creating an encoder with a negative queue capacity and expecting an exception
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 1, -1, meterRegistry));
+        assertThat(ex.getMessage()).contains("-1");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.models.UserRole;
+import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Logs in users whose passwords were hashed with another encoder or work factor than the configured one (4 in tests).
+ */
+@SpringBootTest
+public class PasswordRehashTest {
+
+    private static final String PASSWORD = "PasswordA12@";
+
+    @Autowired
+    private AuthenticationManager authenticationManager;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    public void testLegacyHashIsUpgradedOnLogin() {
+        // Saving a user with a hash of a higher work factor and without the id of the encoder
+        createUser("rehash_up", "rehash_up@test.com", new BCryptPasswordEncoder(6).encode(PASSWORD));
+
+        // Logging in
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("rehash_up", PASSWORD));
+
+        // Verifying that the password was hashed again with the configured encoder and work factor
+        String password = userRepository.findByUsername("rehash_up").getPassword();
+        assertThat(password).startsWith("{bcrypt}$2a$04$");
+        assertThat(passwordEncoder.matches(PASSWORD, password)).isTrue();
+    }
+
+    @Test
+    public void testCurrentHashIsKeptOnLogin() {
+        // Saving a user with a hash of the configured encoder
+        String encoded = passwordEncoder.encode(PASSWORD);
+        createUser("rehash_keep", "rehash_keep@test.com", encoded);
+
+        // Logging in
+        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken("rehash_keep", PASSWORD));
+
+        // Verifying that the password was not changed
+        assertThat(userRepository.findByUsername("rehash_keep").getPassword()).isEqualTo(encoded);
+    }
+
+    private void createUser(String username, String email, String password) {
+        userRepository.save(User.builder()
+                .username(username)
+                .email(email)
+                .password(password)
+                .role(UserRole.USER)
+                .enabled(true)
+                .build());
+    }
+}
@@ -0,0 +1,72 @@
+package com.kawser.cleanspringbootproject.auth.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.models.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TokenServiceTest {
+
+    private static final String SECRET = "JWT_TEST_SECRET";
+
+    private TokenService tokenService;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", SECRET);
+        ReflectionTestUtils.setField(tokenService, "EXPIRATION_TIME", 300L);
+        tokenService.init();
+
+        user = new User("login_test", "encrypted", "test@test.com", UserRole.ADMIN, "01912990007");
+        user.setId(42L);
+        user.setEnabled(true);
+    }
+
+    @Test
+    public void testValidateTokenReturnsSubject() {
+        String token = tokenService.generateToken(user);
+
+        assertThat(tokenService.validateToken(token)).isEqualTo(user.getUsername());
+    }
+
+    @Test
+    public void testRecoverUserFromClaims() {
+        String token = tokenService.generateToken(user);
+
+        User principal = tokenService.recoverUser(token);
+
+        // The principal is rebuilt from the claims, without the password
+        assertThat(principal).isNotNull();
+        assertThat(principal.getId()).isEqualTo(42L);
+        assertThat(principal.getUsername()).isEqualTo(user.getUsername());
+        assertThat(principal.getRole()).isEqualTo(UserRole.ADMIN);
+        assertThat(principal.isEnabled()).isTrue();
+        assertThat(principal.getPassword()).isNull();
+    }
+
+    @Test
+    public void testRecoverUserWithTamperedToken() {
+        String token = tokenService.generateToken(user);
+
+        assertThat(tokenService.recoverUser(token + "x")).isNull();
+    }
+
+    @Test
+    public void testRecoverUserWithoutClaims() {
+        // A token signed with the same secret but issued without the user claims
+        String token = JWT.create()
+                .withIssuer("auth-service")
+                .withSubject(user.getUsername())
+                .sign(Algorithm.HMAC256(SECRET));
+
+        assertThat(tokenService.recoverUser(token)).isNull();
+    }
+}
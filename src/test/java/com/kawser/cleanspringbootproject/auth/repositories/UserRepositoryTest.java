@@ -101,4 +101,26 @@ public class UserRepositoryTest {
 
         assertThat(exists).isFalse();
     }
+
+    @Test
+    public void whenUpdatePasswordNotChanged_thenReplacePassword() {
+        User savedUser = entityManager.persistAndFlush(user);
+
+        int updated = userRepository.updatePassword(savedUser.getUsername(), savedUser.getPassword(), "NewPassword1#");
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(userRepository.findByUsername(savedUser.getUsername()).getPassword()).isEqualTo("NewPassword1#");
+    }
+
+    @Test
+    public void whenUpdatePasswordChanged_thenKeepPassword() {
+        User savedUser = entityManager.persistAndFlush(user);
+
+        int updated = userRepository.updatePassword(savedUser.getUsername(), "OtherPassword1#", "NewPassword1#");
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(0);
+        assertThat(userRepository.findByUsername(savedUser.getUsername()).getPassword()).isEqualTo(savedUser.getPassword());
+    }
 }
@@ -3,20 +3,23 @@ package com.kawser.cleanspringbootproject.auth.services;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.doNothing;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.function.Consumer;
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
 import com.kawser.cleanspringbootproject.auth.models.OneTimePassword;
 import com.kawser.cleanspringbootproject.auth.models.User;
 import com.kawser.cleanspringbootproject.auth.models.dto.authentication.SignupDTO;
 import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
 import com.kawser.cleanspringbootproject.auth.services.impl.AuthenticationService;
-import com.kawser.cleanspringbootproject.auth.util.EmailUtil;
 import com.kawser.cleanspringbootproject.auth.util.OtpUtil;
 import com.kawser.cleanspringbootproject.exception.auth.domain.authentication.InvalidOtpException;
 import com.kawser.cleanspringbootproject.exception.auth.domain.user.EmailAlreadyExistsException;
@@ -25,10 +28,13 @@ import com.kawser.cleanspringbootproject.exception.auth.domain.user.UserNotFound
 import com.kawser.cleanspringbootproject.exception.auth.domain.user.UsernameAlreadyExistsException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import jakarta.mail.MessagingException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 public class AuthenticationServiceTest {
 
@@ -39,14 +45,29 @@ public class AuthenticationServiceTest {
     private UserRepository userRepository;
 
     @Mock
-    private EmailUtil emailUtil;
+    private IEmailOutboxService emailOutboxService;
 
     @Mock
     private OtpUtil otpUtil;
 
+    @Mock
+    private IAuthorizationService authorizationService;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     public void init() {
         MockitoAnnotations.openMocks(this);
+
+        // Mocking the transaction template to run the callback
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
     }
 
     @Test
@@ -82,14 +103,14 @@ public class AuthenticationServiceTest {
     }
 
     @Test
-    public void testSignupSuccess() throws MessagingException {
+    public void testSignupSuccess() {
         SignupDTO data = new SignupDTO("login_test", "PasswordA12@", "test@test.com", "01912990007");
 
         // Mocking the behavior of the methods that will be called in the service method
         when(userRepository.existsByUsername(data.username())).thenReturn(false);
         when(userRepository.existsByEmail(data.email())).thenReturn(false);
-        doNothing().when(emailUtil).sendOtpEmail(anyString(), anyString());
         when(otpUtil.generateOtp()).thenReturn(new OneTimePassword("123456", LocalDateTime.now()));
+        when(passwordEncoder.encode(data.password())).thenReturn("encoded");
 
         // Requesting the password reset
         authenticationService.signup(data);
@@ -97,9 +118,16 @@ public class AuthenticationServiceTest {
         // Verifying if the methods were called
         verify(userRepository, times(1)).existsByUsername(data.username());
         verify(userRepository, times(1)).existsByEmail(data.email());
-        verify(emailUtil, times(1)).sendOtpEmail(anyString(), anyString());
+        verify(emailOutboxService, times(1)).enqueue(EmailType.VERIFY_ACCOUNT, data.email(), "123456");
+        verify(passwordEncoder, times(1)).encode(data.password());
         verify(userRepository, times(1)).save(any(User.class));
-        verifyNoMoreInteractions(userRepository, emailUtil);
+        verifyNoMoreInteractions(userRepository, emailOutboxService);
+
+        // Verifying that the password is hashed before the transaction that saves the user
+        InOrder order = inOrder(passwordEncoder, transactionTemplate, userRepository);
+        order.verify(passwordEncoder).encode(data.password());
+        order.verify(transactionTemplate).executeWithoutResult(any());
+        order.verify(userRepository).save(any(User.class));
     }
 
     @Test
@@ -156,6 +184,7 @@ public class AuthenticationServiceTest {
         // Verifying if the methods were called
         verify(userRepository, times(1)).findByEmail(email);
         verify(userRepository, times(1)).save(user);
+        verify(authorizationService, times(1)).evictUser(user.getUsername());
         verifyNoMoreInteractions(userRepository);
     }
 
@@ -178,7 +207,7 @@ public class AuthenticationServiceTest {
     }
 
     @Test
-    public void testResendVerificationSuccess() throws MessagingException {
+    public void testResendVerificationSuccess() {
         String email = "test@test.com";
 
         User user = new User();
@@ -186,7 +215,6 @@ public class AuthenticationServiceTest {
 
         // Mocking the behavior of the methods that will be called in the service method
         when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-        doNothing().when(emailUtil).sendOtpEmail(anyString(), anyString());
         when(otpUtil.generateOtp()).thenReturn(new OneTimePassword("123456", LocalDateTime.now()));
 
         // Requesting the password reset
@@ -194,7 +222,7 @@ public class AuthenticationServiceTest {
 
         // Verifying if the methods were called
         verify(userRepository, times(1)).findByEmail(email);
-        verify(emailUtil, times(1)).sendOtpEmail(anyString(), anyString());
+        verify(emailOutboxService, times(1)).enqueue(eq(EmailType.VERIFY_ACCOUNT), eq(email), anyString());
     }
 
 }
@@ -0,0 +1,168 @@
+package com.kawser.cleanspringbootproject.auth.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.concurrent.atomic.AtomicBoolean;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.kawser.cleanspringbootproject.auth.models.User;
+import com.kawser.cleanspringbootproject.auth.repositories.UserRepository;
+import com.kawser.cleanspringbootproject.auth.services.impl.AuthorizationService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class AuthorizationServiceTest {
+
+    @InjectMocks
+    private AuthorizationService authorizationService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(authorizationService, "userCacheSpec", "maximumSize=100,expireAfterWrite=1m");
+        authorizationService.init();
+    }
+
+    @Test
+    public void testLoadUserByUsernameIsCached() {
+        User user = User.builder().username("login_test").build();
+
+        // Mocking the behavior of the methods that will be called in the service method
+        when(userRepository.findByUsername("login_test")).thenReturn(user);
+
+        // Loading the user twice
+        assertThat(authorizationService.loadUserByUsername("login_test")).isSameAs(user);
+        assertThat(authorizationService.loadUserByUsername("login_test")).isSameAs(user);
+
+        // Verifying that only the first load queried the database and that the hit was recorded
+        verify(userRepository, times(1)).findByUsername("login_test");
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "users").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEvictUserReloadsFromDatabase() {
+        User user = User.builder().username("login_test").build();
+
+        // Mocking the behavior of the methods that will be called in the service method
+        when(userRepository.findByUsername("login_test")).thenReturn(user);
+
+        // Loading the user, evicting it and loading it again
+        authorizationService.loadUserByUsername("login_test");
+        authorizationService.evictUser("login_test");
+        authorizationService.loadUserByUsername("login_test");
+
+        // Verifying that the eviction forced a new query
+        verify(userRepository, times(2)).findByUsername("login_test");
+    }
+
+    @Test
+    public void testLoadUserByUsernameNotFound() {
+        // Mocking the behavior of the methods that will be called in the service method
+        when(userRepository.findByUsername("login_test")).thenReturn(null);
+
+        // Loading the user twice and expecting an exception
+        assertThrows(UsernameNotFoundException.class, () -> authorizationService.loadUserByUsername("login_test"));
+        assertThrows(UsernameNotFoundException.class, () -> authorizationService.loadUserByUsername("login_test"));
+
+        // Verifying that missing users are not cached, so a user that signs up right after is found
+        verify(userRepository, times(2)).findByUsername("login_test");
+    }
+
+    @Test
+    public void testUserCreatedAfterNotFoundIsLoaded() {
+        AsyncLoadingCache<String, ?> userCache =
+                (AsyncLoadingCache<String, ?>) ReflectionTestUtils.getField(authorizationService, "userCache");
+
+        // Repeating the lookups, as the cache would drop the empty load only once its completion is handled
+        for (int i = 0; i < 1000; i++) {
+            String username = "login_test_" + i;
+            User user = User.builder().username(username).build();
+
+            // Mocking the behavior of the methods that will be called in the service method
+            when(userRepository.findByUsername(username)).thenReturn(null, user);
+
+            // Loading an unknown user and expecting an exception
+            assertThrows(UsernameNotFoundException.class, () -> authorizationService.loadUserByUsername(username));
+
+            // Verifying that the empty load is already gone from the cache when the exception is thrown
+            assertThat(userCache.asMap()).doesNotContainKey(username);
+
+            // Loading the user once it is created, without evicting it
+            assertThat(authorizationService.loadUserByUsername(username)).isSameAs(user);
+        }
+    }
+
+    @Test
+    public void testUpdatePasswordEvictsUser() {
+        User user = User.builder().username("login_test").password("old").build();
+
+        // Mocking the behavior of the methods that will be called in the service method
+        when(userRepository.findByUsername("login_test")).thenReturn(user);
+        when(userRepository.updatePassword("login_test", "old", "new")).thenReturn(1);
+
+        // Loading the user, rehashing its password and loading it again
+        authorizationService.loadUserByUsername("login_test");
+        authorizationService.updatePassword(user, "new");
+        authorizationService.loadUserByUsername("login_test");
+
+        // Verifying that the rehashed user is read again from the database
+        verify(userRepository, times(1)).updatePassword("login_test", "old", "new");
+        verify(userRepository, times(2)).findByUsername("login_test");
+    }
+
+    @Test
+    public void testUserIsLoadedOnCallingThread() {
+        User user = User.builder().username("login_test").build();
+        Thread caller = Thread.currentThread();
+        AtomicBoolean loadedOnCallingThread = new AtomicBoolean();
+
+        // Mocking the behavior of the methods that will be called in the service method
+        when(userRepository.findByUsername("login_test")).thenAnswer(invocation -> {
+            loadedOnCallingThread.set(Thread.currentThread() == caller);
+            return user;
+        });
+
+        // Loading the user
+        assertThat(authorizationService.loadUserByUsername("login_test")).isSameAs(user);
+
+        // Verifying that the query ran on the thread of the request, not on the common pool
+        assertThat(loadedOnCallingThread).isTrue();
+    }
+
+    @Test
+    public void testUserIsLoadedOnVirtualThread() {
+        User user = User.builder().username("login_test").build();
+        AtomicBoolean loadedOnVirtualThread = new AtomicBoolean();
+        ReflectionTestUtils.setField(authorizationService, "virtualThreads", true);
+        authorizationService.init();
+
+        // Mocking the behavior of the methods that will be called in the service method
+        when(userRepository.findByUsername("login_test")).thenAnswer(invocation -> {
+            loadedOnVirtualThread.set(Thread.currentThread().isVirtual());
+            return user;
+        });
+
+        // Loading the user
+        assertThat(authorizationService.loadUserByUsername("login_test")).isSameAs(user);
+
+        // Verifying that the query ran on a virtual thread, outside of the lock of the cache
+        assertThat(loadedOnVirtualThread).isTrue();
+    }
+}
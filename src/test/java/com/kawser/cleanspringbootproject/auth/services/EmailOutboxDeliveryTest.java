@@ -0,0 +1,97 @@
+package com.kawser.cleanspringbootproject.auth.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.kawser.cleanspringbootproject.auth.models.EmailOutbox;
+import com.kawser.cleanspringbootproject.auth.models.EmailStatus;
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import com.kawser.cleanspringbootproject.auth.repositories.EmailOutboxRepository;
+import jakarta.mail.internet.MimeMessage;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Sends the emails of the outbox to a local SMTP server started by the test.
+ */
+@SpringBootTest(properties = {
+        "spring.mail.host=127.0.0.1",
+        "spring.mail.port=3025",
+        "auth.email.outbox.enabled=true"
+})
+public class EmailOutboxDeliveryTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP)
+            .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+
+    @Autowired
+    private IEmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Test
+    public void testEnqueuedEmailIsSentByTheDispatcher() throws Exception {
+        // Writing an email in the outbox, the dispatcher sends it in the background
+        emailOutboxService.enqueue(EmailType.VERIFY_ACCOUNT, "outbox@test.com", "123456");
+
+        // Verifying that the SMTP server received it
+        assertThat(greenMail.waitForIncomingEmail(10000, 1)).isTrue();
+        MimeMessage message = greenMail.getReceivedMessages()[0];
+        assertThat(message.getAllRecipients()[0].toString()).isEqualTo("outbox@test.com");
+        assertThat(message.getSubject()).isEqualTo("Verify your account");
+        assertThat(message.getContentType()).startsWith("text/html");
+
+        // Verifying that the email is marked as sent
+        EmailOutbox email = null;
+        for (int i = 0; i < 100; i++) {
+            email = emailOutboxRepository.findAll().stream()
+                    .filter(outbox -> outbox.getRecipient().equals("outbox@test.com"))
+                    .findFirst().orElseThrow();
+            if (email.getStatus() == EmailStatus.SENT) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+        assertThat(email.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(email.getAttempts()).isEqualTo(1);
+        assertThat(email.getToken()).isNull();
+    }
+
+    @Test
+    public void testFinishedEmailsAreDeletedAfterTheRetention() {
+        LocalDateTime old = LocalDateTime.now().minusDays(8);
+        List<EmailOutbox> emails = emailOutboxRepository.saveAll(List.of(
+                email("old-sent@test.com", EmailStatus.SENT, old),
+                email("old-failed@test.com", EmailStatus.FAILED, old),
+                email("old-pending@test.com", EmailStatus.PENDING, old),
+                email("recent-sent@test.com", EmailStatus.SENT, LocalDateTime.now())));
+
+        // Purging the outbox
+        emailOutboxService.purgeFinishedEmails();
+
+        // Verifying that only the sent and failed emails older than the retention of 7 days are deleted
+        assertThat(emailOutboxRepository.findAllById(emails.stream().map(EmailOutbox::getId).toList()))
+                .extracting(EmailOutbox::getRecipient)
+                .containsExactlyInAnyOrder("old-pending@test.com", "recent-sent@test.com");
+        emailOutboxRepository.deleteAll(emails);
+    }
+
+    private EmailOutbox email(String recipient, EmailStatus status, LocalDateTime createdAt) {
+        return EmailOutbox.builder()
+                .type(EmailType.VERIFY_ACCOUNT)
+                .recipient(recipient)
+                .status(status)
+                .attempts(1)
+                // The pending email is not due, so the dispatcher does not send it during the test
+                .nextAttemptAt(LocalDateTime.now().plusDays(1))
+                .createdAt(createdAt)
+                .build();
+    }
+}
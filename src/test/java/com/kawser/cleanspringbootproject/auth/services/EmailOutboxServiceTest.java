@@ -0,0 +1,169 @@
+package com.kawser.cleanspringbootproject.auth.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import com.kawser.cleanspringbootproject.auth.models.EmailOutbox;
+import com.kawser.cleanspringbootproject.auth.models.EmailStatus;
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import com.kawser.cleanspringbootproject.auth.repositories.EmailOutboxRepository;
+import com.kawser.cleanspringbootproject.auth.services.impl.EmailOutboxService;
+import com.kawser.cleanspringbootproject.auth.util.EmailUtil;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mail.MailSendException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class EmailOutboxServiceTest {
+
+    @InjectMocks
+    private EmailOutboxService emailOutboxService;
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailUtil emailUtil;
+
+    @BeforeEach
+    public void init() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(emailOutboxService, "maxAttempts", 3);
+        ReflectionTestUtils.setField(emailOutboxService, "initialBackoff", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(emailOutboxService, "maxBackoff", Duration.ofMinutes(1));
+    }
+
+    @Test
+    public void testEnqueue() {
+        // Writing an email in the outbox
+        emailOutboxService.enqueue(EmailType.VERIFY_ACCOUNT, "test@test.com", "123456");
+
+        // Verifying that a pending email due now was saved
+        ArgumentCaptor<EmailOutbox> email = ArgumentCaptor.forClass(EmailOutbox.class);
+        verify(emailOutboxRepository, times(1)).save(email.capture());
+        assertThat(email.getValue().getStatus()).isEqualTo(EmailStatus.PENDING);
+        assertThat(email.getValue().getRecipient()).isEqualTo("test@test.com");
+        assertThat(email.getValue().getNextAttemptAt()).isBeforeOrEqualTo(LocalDateTime.now());
+    }
+
+    @Test
+    public void testDeliverBatchSuccess() throws MessagingException {
+        EmailOutbox verify = pendingEmail(EmailType.VERIFY_ACCOUNT, 0);
+        EmailOutbox recover = pendingEmail(EmailType.RECOVER_PASSWORD, 0);
+        MimeMessage verifyMessage = mock(MimeMessage.class);
+        MimeMessage recoverMessage = mock(MimeMessage.class);
+
+        // Mocking the behavior of the methods that will be called in the service method
+        when(emailUtil.createEmail(EmailType.VERIFY_ACCOUNT, null, "test@test.com", "123456")).thenReturn(verifyMessage);
+        when(emailUtil.createEmail(EmailType.RECOVER_PASSWORD, null, "test@test.com", "123456")).thenReturn(recoverMessage);
+
+        // Sending the emails
+        ReflectionTestUtils.invokeMethod(emailOutboxService, "deliver", List.of(verify, recover));
+
+        // Verifying that both emails were sent in one batch and marked as sent
+        verify(emailUtil, times(1)).send(verifyMessage, recoverMessage);
+        verify(emailOutboxRepository, times(1)).saveAll(List.of(verify, recover));
+        assertThat(verify.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(recover.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(recover.getSentAt()).isNotNull();
+
+        // Verifying that the one-time passwords are not kept once sent
+        assertThat(verify.getToken()).isNull();
+        assertThat(recover.getToken()).isNull();
+    }
+
+    @Test
+    public void testDeliverFailureIsRetriedWithBackoff() throws MessagingException {
+        EmailOutbox sent = pendingEmail(EmailType.VERIFY_ACCOUNT, 0);
+        EmailOutbox failed = pendingEmail(EmailType.RECOVER_PASSWORD, 1);
+        MimeMessage sentMessage = mock(MimeMessage.class);
+        MimeMessage failedMessage = mock(MimeMessage.class);
+
+        // Mocking the behavior of the mail server refusing one email of the batch
+        when(emailUtil.createEmail(eq(EmailType.VERIFY_ACCOUNT), any(), any(), any())).thenReturn(sentMessage);
+        when(emailUtil.createEmail(eq(EmailType.RECOVER_PASSWORD), any(), any(), any())).thenReturn(failedMessage);
+        doThrow(new MailSendException(Map.of(failedMessage, new MessagingException("Mailbox unavailable"))))
+                .when(emailUtil).send(sentMessage, failedMessage);
+
+        // Sending the emails
+        LocalDateTime before = LocalDateTime.now();
+        ReflectionTestUtils.invokeMethod(emailOutboxService, "deliver", List.of(sent, failed));
+
+        // Verifying that only the refused email is still pending, postponed by the doubled backoff
+        assertThat(sent.getStatus()).isEqualTo(EmailStatus.SENT);
+        assertThat(failed.getStatus()).isEqualTo(EmailStatus.PENDING);
+        assertThat(failed.getAttempts()).isEqualTo(2);
+        assertThat(failed.getLastError()).isEqualTo("Mailbox unavailable");
+        assertThat(failed.getNextAttemptAt()).isAfterOrEqualTo(before.plusMinutes(1));
+        assertThat(failed.getToken()).isEqualTo("123456");
+    }
+
+    @Test
+    public void testDeliverFailureWithoutAttemptLeft() throws MessagingException {
+        EmailOutbox email = pendingEmail(EmailType.VERIFY_ACCOUNT, 2);
+
+        // Mocking the behavior of the email that cannot be created
+        doThrow(new MessagingException("Invalid address")).when(emailUtil).createEmail(any(), any(), any(), any());
+
+        // Sending the email for the last time
+        ReflectionTestUtils.invokeMethod(emailOutboxService, "deliver", List.of(email));
+
+        // Verifying that the email is marked as failed
+        assertThat(email.getStatus()).isEqualTo(EmailStatus.FAILED);
+        assertThat(email.getAttempts()).isEqualTo(3);
+        assertThat(email.getToken()).isNull();
+    }
+
+    @Test
+    public void testPurgeFinishedEmails() {
+        ReflectionTestUtils.setField(emailOutboxService, "dispatcherEnabled", true);
+        ReflectionTestUtils.setField(emailOutboxService, "retention", Duration.ofDays(7));
+
+        // Purging the outbox
+        LocalDateTime before = LocalDateTime.now().minusDays(7);
+        emailOutboxService.purgeFinishedEmails();
+
+        // Verifying that the sent and failed emails older than the retention are deleted
+        ArgumentCaptor<LocalDateTime> cutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(emailOutboxRepository, times(1)).deleteByStatusInAndCreatedAtBefore(
+                eq(EnumSet.of(EmailStatus.SENT, EmailStatus.FAILED)), cutoff.capture());
+        assertThat(cutoff.getValue()).isBetween(before, LocalDateTime.now().minusDays(7));
+    }
+
+    @Test
+    public void testBackoffIsCapped() {
+        // The backoff doubles after each attempt, up to the maximum backoff
+        assertThat((Duration) ReflectionTestUtils.invokeMethod(emailOutboxService, "backoff", 1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat((Duration) ReflectionTestUtils.invokeMethod(emailOutboxService, "backoff", 2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat((Duration) ReflectionTestUtils.invokeMethod(emailOutboxService, "backoff", 10)).isEqualTo(Duration.ofMinutes(1));
+    }
+
+    private EmailOutbox pendingEmail(EmailType type, int attempts) {
+        return EmailOutbox.builder()
+                .id(1L)
+                .type(type)
+                .recipient("test@test.com")
+                .token("123456")
+                .status(EmailStatus.PENDING)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
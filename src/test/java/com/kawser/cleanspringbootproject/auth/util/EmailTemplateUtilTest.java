@@ -0,0 +1,80 @@
+package com.kawser.cleanspringbootproject.auth.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import com.kawser.cleanspringbootproject.auth.models.EmailType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class EmailTemplateUtilTest {
+
+    private EmailTemplateUtil emailTemplateUtil;
+
+    @BeforeEach
+    public void init() throws IOException {
+        emailTemplateUtil = new EmailTemplateUtil();
+        emailTemplateUtil.init();
+    }
+
+    @Test
+    public void testRenderDefaultTemplate() {
+        EmailTemplateUtil.EmailTemplate template = emailTemplateUtil.getTemplate(EmailType.VERIFY_ACCOUNT, null);
+
+        // The subject is the first line and the variables are replaced in the body
+        assertThat(template.subject()).isEqualTo("Verify your account");
+        assertThat(emailTemplateUtil.render(template, "test@test.com", "123456"))
+                .contains("verify-account?email=test@test.com&token=123456")
+                .doesNotContain("{{");
+    }
+
+    @Test
+    public void testLocalizedTemplateFallsBackToLanguage() {
+        // A template for es-AR does not exist, so the Spanish one is used
+        EmailTemplateUtil.EmailTemplate template = emailTemplateUtil.getTemplate(EmailType.RECOVER_PASSWORD, Locale.forLanguageTag("es-AR"));
+
+        assertThat(template.subject()).isEqualTo("Recupera tu contraseña");
+    }
+
+    @Test
+    public void testUnknownLocaleFallsBackToDefault() {
+        EmailTemplateUtil.EmailTemplate template = emailTemplateUtil.getTemplate(EmailType.RECOVER_PASSWORD, Locale.JAPANESE);
+
+        assertThat(template.subject()).isEqualTo("Recover your password");
+    }
+
+    @Test
+    public void testRenderReusesTheBufferOfTheThread() {
+        EmailTemplateUtil.EmailTemplate template = emailTemplateUtil.getTemplate(EmailType.VERIFY_ACCOUNT, null);
+
+        // Rendering twice does not keep anything of the first email
+        emailTemplateUtil.render(template, "first@test.com", "111111");
+        String body = emailTemplateUtil.render(template, "second@test.com", "222222");
+
+        assertThat(body).contains("second@test.com").doesNotContain("first@test.com");
+    }
+
+    @Test
+    public void testLocalesAreResolvedToTheTemplatesOfTheFiles() {
+        // Different locales of the same language get the same template
+        EmailTemplateUtil.EmailTemplate argentina = emailTemplateUtil.getTemplate(EmailType.VERIFY_ACCOUNT, Locale.forLanguageTag("es-AR"));
+        EmailTemplateUtil.EmailTemplate mexico = emailTemplateUtil.getTemplate(EmailType.VERIFY_ACCOUNT, Locale.forLanguageTag("es-MX"));
+
+        assertThat(argentina).isSameAs(mexico).isSameAs(emailTemplateUtil.getTemplate(EmailType.VERIFY_ACCOUNT, Locale.of("es")));
+    }
+
+    @Test
+    public void testMalformedTemplateIsRejected() {
+        // A template without a body, or with a variable that is not closed, is rejected when it is read
+        assertThatThrownBy(() -> ReflectionTestUtils.invokeMethod(emailTemplateUtil, "parse", "subject_only.html", "Subject only"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("subject_only.html");
+        assertThatThrownBy(() -> ReflectionTestUtils.invokeMethod(emailTemplateUtil, "parse", "unclosed.html", "Subject\n<p>{{token</p>"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("unclosed.html");
+    }
+}
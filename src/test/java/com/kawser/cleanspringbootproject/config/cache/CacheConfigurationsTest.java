@@ -0,0 +1,52 @@
+package com.kawser.cleanspringbootproject.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class CacheConfigurationsTest {
+
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    public void init() {
+        CacheConfigurations cacheConfigurations = new CacheConfigurations();
+        ReflectionTestUtils.setField(cacheConfigurations, "productsSpec", "maximumSize=10,expireAfterWrite=1m");
+        ReflectionTestUtils.setField(cacheConfigurations, "productListingsSpec", "maximumSize=5,expireAfterWrite=1m");
+        cacheManager = cacheConfigurations.cacheManager();
+    }
+
+    @Test
+    public void testProductsCacheIsBounded() {
+        // The products cache is built from its specification, records its statistics and coalesces its loads
+        assertThat(cacheManager.getCache("products")).isInstanceOf(CoalescingCache.class);
+        Cache<?, ?> products = nativeCache("products");
+        assertThat(products.policy().eviction()).hasValueSatisfying(
+                eviction -> assertThat(eviction.getMaximum()).isEqualTo(10));
+        assertThat(products.policy().isRecordingStats()).isTrue();
+    }
+
+    @Test
+    public void testProductListingsCacheIsSeparate() {
+        Cache<?, ?> productListings = nativeCache("productListings");
+
+        // The listings have their own cache, so clearing them does not touch the products by id
+        assertThat(productListings).isNotSameAs(nativeCache("products"));
+        assertThat(productListings.policy().eviction()).hasValueSatisfying(
+                eviction -> assertThat(eviction.getMaximum()).isEqualTo(5));
+    }
+
+    @Test
+    public void testUnknownCacheIsNotCreated() {
+        // Only the configured caches exist, no unbounded cache is created on demand
+        assertThat(cacheManager.getCache("unknown")).isNull();
+    }
+
+    private Cache<?, ?> nativeCache(String name) {
+        return (Cache<?, ?>) cacheManager.getCache(name).getNativeCache();
+    }
+}
@@ -0,0 +1,107 @@
+package com.kawser.cleanspringbootproject.config.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+public class CoalescingCacheTest {
+
+    private CoalescingCache cache;
+
+    @BeforeEach
+    public void init() {
+        cache = new CoalescingCache(new CaffeineCache("test", Caffeine.newBuilder().build()));
+    }
+
+    @Test
+    public void testConcurrentMissesRunTheLoaderOnce() throws Exception {
+        AtomicInteger loaderCalls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // The first call blocks in the loader until the second call is waiting for it
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+            loaderCalls.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "value";
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> cache.get("key", () -> {
+            loaderCalls.incrementAndGet();
+            return "other value";
+        }));
+        while (cache.getCoalescedLoads() == 0) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Both calls get the value of the single load, which is cached
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(loaderCalls.get()).isEqualTo(1);
+        assertThat(cache.getCoalescedLoads()).isEqualTo(1);
+        assertThat(cache.get("key").get()).isEqualTo("value");
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        // Loading a value with a failing loader and expecting an exception
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get("key", () -> {
+            throw new IllegalStateException("failure");
+        }));
+
+        // The next call runs the loader again
+        assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+    }
+
+    @Test
+    public void testEvictDuringLoadDoesNotCacheTheValue() {
+        // Evicting the key while its value is loading, as an update of the product would do
+        String value = cache.get("key", () -> {
+            cache.evict("key");
+            return "stale value";
+        });
+
+        // The loaded value is returned but not cached
+        assertThat(value).isEqualTo("stale value");
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    public void testEvictWhileTheLoadedValueIsCachedEvictsIt() throws Exception {
+        CompletableFuture<Void> eviction = new CompletableFuture<>();
+        // The eviction comes from another thread just as the loaded value is being cached
+        cache = new CoalescingCache(new ConcurrentMapCache("test") {
+            @Override
+            public void put(Object key, Object value) {
+                CompletableFuture.runAsync(() -> cache.evict(key)).thenRun(() -> eviction.complete(null));
+                try {
+                    eviction.get(200, TimeUnit.MILLISECONDS);
+                } catch (Exception ex) {
+                    // The eviction waits for the value to be cached
+                }
+                super.put(key, value);
+            }
+        });
+
+        String value = cache.get("key", () -> "stale value");
+        eviction.get(5, TimeUnit.SECONDS);
+
+        // The eviction is not lost, the value is evicted after being cached
+        assertThat(value).isEqualTo("stale value");
+        assertThat(cache.get("key")).isNull();
+    }
+}
@@ -0,0 +1,62 @@
+package com.kawser.cleanspringbootproject.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+import com.kawser.cleanspringbootproject.auth.models.dto.password.PasswordResetRequestDTO;
+import com.kawser.cleanspringbootproject.auth.services.IPasswordResetService;
+import com.kawser.cleanspringbootproject.exception.auth.domain.user.UserNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+
+public class ServiceMetricsInterceptorTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IPasswordResetService passwordResetService;
+
+    private IPasswordResetService timedPasswordResetService;
+
+    @BeforeEach
+    public void init() {
+        passwordResetService = mock(IPasswordResetService.class);
+
+        // Proxying the service with the interceptor
+        ProxyFactory proxyFactory = new ProxyFactory(passwordResetService);
+        proxyFactory.addAdvisor(new DefaultPointcutAdvisor(new ServiceMetricsInterceptor(() -> meterRegistry)));
+        timedPasswordResetService = (IPasswordResetService) proxyFactory.getProxy();
+    }
+
+    @Test
+    public void testSuccessfulCallIsTimed() {
+        // Calling the service
+        timedPasswordResetService.requestReset(new PasswordResetRequestDTO("test@test.com"));
+
+        // Verifying that the call was timed with a success outcome
+        assertThat(meterRegistry.get(ServiceMetricsInterceptor.METRIC_NAME)
+                .tag("method", "requestReset").tag("outcome", "SUCCESS").tag("exception", "none")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedCallIsTaggedWithException() {
+        PasswordResetRequestDTO data = new PasswordResetRequestDTO("test@test.com");
+
+        // Mocking the behavior of the methods that will be called in the service method
+        doThrow(new UserNotFoundException(data.email())).when(passwordResetService).requestReset(data);
+
+        // Calling the service and expecting the exception to be thrown as is
+        assertThrows(UserNotFoundException.class, () -> timedPasswordResetService.requestReset(data));
+
+        // Verifying that the call was timed with an error outcome and the exception
+        assertThat(meterRegistry.get(ServiceMetricsInterceptor.METRIC_NAME)
+                .tag("method", "requestReset").tag("outcome", "ERROR").tag("exception", "UserNotFoundException")
+                .timer().count()).isEqualTo(1);
+    }
+}
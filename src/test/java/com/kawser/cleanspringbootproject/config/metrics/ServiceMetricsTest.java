@@ -0,0 +1,36 @@
+package com.kawser.cleanspringbootproject.config.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.kawser.cleanspringbootproject.api.services.IProductService;
+import com.kawser.cleanspringbootproject.exception.api.domain.product.ProductNotFoundException;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+
+/**
+ * Calls a service of the application and reads its timer from the Prometheus registry.
+ */
+@SpringBootTest
+@AutoConfigureObservability(tracing = false)
+public class ServiceMetricsTest {
+
+    @Autowired
+    private IProductService productService;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Test
+    public void testServiceMethodIsExportedToPrometheus() {
+        // Getting a product that does not exist
+        assertThrows(ProductNotFoundException.class, () -> productService.getProductById(Long.MAX_VALUE));
+
+        // Verifying that the histogram of the call is exported with its outcome
+        assertThat(prometheusMeterRegistry.scrape()).contains("service_method_seconds_bucket{"
+                + "exception=\"ProductNotFoundException\",method=\"getProductById\",outcome=\"ERROR\",service=\"ProductService\"");
+    }
+}
@@ -0,0 +1,35 @@
+package com.kawser.cleanspringbootproject.config.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.kawser.cleanspringbootproject.api.repositories.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+public class SqlEndpointTest {
+
+    @Autowired
+    private SqlEndpoint sqlEndpoint;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    public void testRepositoryStatementIsRecorded() {
+        sqlEndpoint.clear();
+
+        // Querying the products through the repository
+        productRepository.findNextByNameAndIdAsc("sql_endpoint_test", 0L, Limit.of(10));
+
+        // Verifying that the statement is shown by the endpoint, without the value of its parameter
+        assertThat(sqlEndpoint.statements(null).statements())
+                .anySatisfy(statement -> {
+                    assertThat(statement.sql()).containsIgnoringCase("from products").contains("?");
+                    assertThat(statement.sql()).doesNotContain("sql_endpoint_test");
+                });
+        assertThat(sqlEndpoint.statements(true).statements()).noneMatch(statement -> !statement.slow());
+    }
+}
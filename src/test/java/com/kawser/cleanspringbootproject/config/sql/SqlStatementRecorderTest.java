@@ -0,0 +1,53 @@
+package com.kawser.cleanspringbootproject.config.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.Test;
+
+public class SqlStatementRecorderTest {
+
+    @Test
+    public void testOldestStatementsAreOverwritten() {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(2, 1.0, Duration.ofSeconds(1));
+
+        // Executing three statements with a buffer of two
+        execute(recorder, "select 1");
+        execute(recorder, "select 2");
+        execute(recorder, "select 3");
+
+        // Verifying that only the two most recent are kept, the most recent first
+        assertThat(recorder.getStatements()).extracting(SqlStatementRecorder.SqlStatement::sql)
+                .containsExactly("select 3", "select 2");
+        assertThat(recorder.getRecordedCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void testSlowStatementIsRecordedWhenNotSampled() {
+        SqlStatementRecorder recorder = new SqlStatementRecorder(10, 0.0, Duration.ZERO);
+        SqlStatementRecorder notSlowRecorder = new SqlStatementRecorder(10, 0.0, Duration.ofSeconds(1));
+
+        // Executing a statement with no sampling
+        execute(recorder, "select 1");
+        execute(notSlowRecorder, "select 1");
+
+        // Verifying that only the statement over the threshold is recorded, marked as slow
+        assertThat(recorder.getStatements()).singleElement().satisfies(statement -> {
+            assertThat(statement.slow()).isTrue();
+            assertThat(statement.success()).isTrue();
+        });
+        assertThat(notSlowRecorder.getStatements()).isEmpty();
+    }
+
+    private void execute(SqlStatementRecorder recorder, String sql) {
+        ExecutionInfo executionInfo = new ExecutionInfo();
+        executionInfo.setSuccess(true);
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        recorder.beforeQuery(executionInfo, queries);
+        recorder.afterQuery(executionInfo, queries);
+    }
+}